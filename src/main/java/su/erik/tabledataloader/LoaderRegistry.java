@@ -4,71 +4,118 @@ import com.puls.centralpricing.common.exception.BaseFaultException;
 import com.puls.centralpricing.common.exception.Error;
 import com.puls.centralpricing.common.exception.StandardFault;
 import su.erik.tabledataloader.config.EnumLoaderType;
+import su.erik.tabledataloader.config.StandardParam;
 import su.erik.tabledataloader.exporter.FileExporter;
 import su.erik.tabledataloader.importer.ImportMapper;
 import su.erik.tabledataloader.importer.loader.FileLoader;
+import su.erik.tabledataloader.importer.loader.ZipFileLoader;
 import su.erik.tabledataloader.spi.LoaderDescriptor;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 /**
  * Реестр загрузчиков и экспортеров.
  * Управляет метаданными компонентов и их созданием.
+ * <p>
+ * Конструкторы компонентов ищутся один раз на класс и кэшируются как MethodHandle,
+ * поэтому создание загрузчика на запрос обходится без рефлексии.
+ * <p>
+ * Соответствие расширений классам хранится неизменяемым снимком: чтение идёт без блокировок,
+ * а регистрация и refresh() публикуют новый снимок целиком (copy-on-write).
  */
 public class LoaderRegistry {
 
-    private final Map<String, Class<? extends FileLoader>> loaderClasses = new HashMap<>();
-    private final Map<String, Class<? extends FileExporter>> exporterClasses = new HashMap<>();
-    
+    private static final MethodType LOADER_CONSTRUCTOR = MethodType.methodType(void.class, Class.class, ImportMapper.class, Map.class);
+    private static final MethodType EXPORTER_CONSTRUCTOR = MethodType.methodType(void.class, Iterable.class);
+    private static final MethodType CONSUMER_EXPORTER_CONSTRUCTOR = MethodType.methodType(void.class, Iterable.class, Consumer.class);
+
+    /**
+     * Неизменяемый снимок реестра.
+     */
+    private record Snapshot(Map<String, Class<? extends FileLoader>> loaderClasses,
+                            Map<String, Class<? extends FileExporter>> exporterClasses) {
+
+        Snapshot {
+            loaderClasses = Map.copyOf(loaderClasses);
+            exporterClasses = Map.copyOf(exporterClasses);
+        }
+
+        Snapshot withLoader(String extension, Class<? extends FileLoader> loaderClass) {
+            Map<String, Class<? extends FileLoader>> loaders = new HashMap<>(loaderClasses);
+            loaders.put(extension, loaderClass);
+            return new Snapshot(loaders, exporterClasses);
+        }
+
+        Snapshot withExporter(String extension, Class<? extends FileExporter> exporterClass) {
+            Map<String, Class<? extends FileExporter>> exporters = new HashMap<>(exporterClasses);
+            exporters.put(extension, exporterClass);
+            return new Snapshot(loaderClasses, exporters);
+        }
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Map.of(), Map.of()));
+    private final Map<Class<?>, MethodHandle> loaderFactories = new ConcurrentHashMap<>();
+    private final Map<Class<?>, MethodHandle> exporterFactories = new ConcurrentHashMap<>();
+    private final Map<Class<?>, MethodHandle> consumerExporterFactories = new ConcurrentHashMap<>();
+
     public LoaderRegistry() {
         refresh();
     }
 
     /**
      * Перезагружает сервисы SPI (дескрипторы).
+     * Снимок собирается отдельно и подменяет текущий одной записью, поэтому поиски не видят реестр наполовину.
      */
-    public synchronized void refresh() {
-        loaderClasses.clear();
-        exporterClasses.clear();
+    public void refresh() {
+        Map<String, Class<? extends FileLoader>> loaders = new HashMap<>();
+        Map<String, Class<? extends FileExporter>> exporters = new HashMap<>();
 
         ServiceLoader<LoaderDescriptor> descriptors = ServiceLoader.load(LoaderDescriptor.class);
         for (LoaderDescriptor descriptor : descriptors) {
-            registerDescriptor(descriptor);
+            registerDescriptor(descriptor, loaders, exporters);
         }
+
+        snapshot.set(new Snapshot(loaders, exporters));
     }
 
     @SuppressWarnings("unchecked")
-    private void registerDescriptor(LoaderDescriptor descriptor) {
+    private static void registerDescriptor(LoaderDescriptor descriptor,
+                                           Map<String, Class<? extends FileLoader>> loaders,
+                                           Map<String, Class<? extends FileExporter>> exporters) {
         Class<?> componentClass = descriptor.getComponentClass();
         
         if (descriptor.getType() == EnumLoaderType.LOADER) {
             if (FileLoader.class.isAssignableFrom(componentClass)) {
                 for (String extension : descriptor.getSupportedExtensions()) {
-                    loaderClasses.put(extension.toLowerCase(), (Class<? extends FileLoader>) componentClass);
+                    loaders.put(extension.toLowerCase(), (Class<? extends FileLoader>) componentClass);
                 }
             }
         } else if (descriptor.getType() == EnumLoaderType.EXPORTER) {
             if (FileExporter.class.isAssignableFrom(componentClass)) {
                 for (String extension : descriptor.getSupportedExtensions()) {
-                    exporterClasses.put(extension.toLowerCase(), (Class<? extends FileExporter>) componentClass);
+                    exporters.put(extension.toLowerCase(), (Class<? extends FileExporter>) componentClass);
                 }
             }
         }
     }
 
-    public void registerLoader(String extension, Class<? extends FileLoader> loaderClass) { loaderClasses.put(extension.toLowerCase(), loaderClass); }
-    public void registerExporter(String extension, Class<? extends FileExporter> exporterClass) { exporterClasses.put(extension.toLowerCase(), exporterClass); }
+    public void registerLoader(String extension, Class<? extends FileLoader> loaderClass) { snapshot.updateAndGet(current -> current.withLoader(extension.toLowerCase(), loaderClass)); }
+    public void registerExporter(String extension, Class<? extends FileExporter> exporterClass) { snapshot.updateAndGet(current -> current.withExporter(extension.toLowerCase(), exporterClass)); }
 
     public Class<? extends FileLoader> getLoaderClass(String extension) {
         if (extension == null) return null;
-        return loaderClasses.get(extension.toLowerCase().replace(".", ""));
+        return snapshot.get().loaderClasses().get(extension.toLowerCase().replace(".", ""));
     }
     
     public Class<? extends FileExporter> getExporterClass(String extension) {
         if (extension == null) return null;
-        return exporterClasses.get(extension.toLowerCase().replace(".", ""));
+        return snapshot.get().exporterClasses().get(extension.toLowerCase().replace(".", ""));
     }
 
     public <T> FileLoader createLoader(String extension, Class<T> dtoClass, ImportMapper<T> mapper, Map<String, Object> filters) {
@@ -77,34 +124,57 @@ public class LoaderRegistry {
         return createLoader(loaderClass, dtoClass, mapper, filters);
     }
 
+    /**
+     * Создаёт загрузчик конструктором (Class&lt;?&gt; dtoClass, ImportMapper&lt;?&gt; mapper, Map&lt;String, Object&gt; filters).
+     * Архивный загрузчик получает копию filters с этим реестром в filters["loaderRegistry"]: элементы архива
+     * разбираются загрузчиками того же реестра, а filters вызывающего не меняются.
+     */
     public <T> FileLoader createLoader(Class<? extends FileLoader> loaderClass, Class<T> dtoClass, ImportMapper<T> mapper, Map<String, Object> filters) {
-        filters.put("loaderRegistry", this);
+        MethodHandle factory = loaderFactories.computeIfAbsent(loaderClass, type -> findConstructor(type, LOADER_CONSTRUCTOR, FileLoader.class));
+        Map<String, Object> loaderFilters = filters;
+        if (ZipFileLoader.class.isAssignableFrom(loaderClass)) {
+            loaderFilters = new HashMap<>(filters);
+            loaderFilters.put(StandardParam.LOADER_REGISTRY.getKey(), this);
+        }
         try {
-            // Ищем конструктор: (Class<?> dtoClass, ImportMapper<?> mapper, Map<String, Object> filters)
-            Constructor<? extends FileLoader> constructor = loaderClass.getConstructor(Class.class, ImportMapper.class, Map.class);
-            return constructor.newInstance(dtoClass, mapper, filters);
-        } catch (Exception e) {
-            throw new StandardFault(e);
+            return (FileLoader) factory.invokeExact((Class<?>) dtoClass, (ImportMapper<?>) mapper, loaderFilters);
+        } catch (Throwable e) {
+            throw invocationFault(e);
         }
     }
     
     public <T> FileExporter createExporter(Iterable<T> data, Class<? extends FileExporter> viewClass) {
+        MethodHandle factory = exporterFactories.computeIfAbsent(viewClass, type -> findConstructor(type, EXPORTER_CONSTRUCTOR, FileExporter.class));
         try {
-            // Ищем конструктор: (Iterable<?> data)
-            Constructor<? extends FileExporter> constructor = viewClass.getConstructor(Iterable.class);
-            return constructor.newInstance(data);
-        } catch (Exception e) {
-            throw new StandardFault(e);
+            return (FileExporter) factory.invokeExact((Iterable<?>) data);
+        } catch (Throwable e) {
+            throw invocationFault(e);
         }
     }
     
     public <T> FileExporter createExporter(Iterable<T> data, Class<? extends FileExporter> viewClass, Consumer<T> consumer) {
+        MethodHandle factory = consumerExporterFactories.computeIfAbsent(viewClass, type -> findConstructor(type, CONSUMER_EXPORTER_CONSTRUCTOR, FileExporter.class));
         try {
-            // Ищем конструктор: (Iterable<?> data, Consumer<?> consumer)
-            Constructor<? extends FileExporter> constructor = viewClass.getConstructor(Iterable.class, Consumer.class);
-            return constructor.newInstance(data, consumer);
-        } catch (Exception e) {
+            return (FileExporter) factory.invokeExact((Iterable<?>) data, (Consumer<?>) consumer);
+        } catch (Throwable e) {
+            throw invocationFault(e);
+        }
+    }
+
+    /**
+     * Публичный конструктор с заданной сигнатурой, приведённый к базовому типу компонента для invokeExact.
+     */
+    private static MethodHandle findConstructor(Class<?> componentClass, MethodType constructorType, Class<?> componentType) {
+        try {
+            MethodHandle constructor = MethodHandles.publicLookup().findConstructor(componentClass, constructorType);
+            return constructor.asType(constructorType.changeReturnType(componentType));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
             throw new StandardFault(e);
         }
     }
-}
\ No newline at end of file
+
+    private static RuntimeException invocationFault(Throwable throwable) {
+        if (throwable instanceof java.lang.Error error) throw error;
+        return new StandardFault((Exception) throwable);
+    }
+}
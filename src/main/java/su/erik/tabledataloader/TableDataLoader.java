@@ -4,27 +4,47 @@ import com.puls.centralpricing.common.exception.BaseFaultException;
 import com.puls.centralpricing.common.exception.Error;
 import com.puls.centralpricing.common.exception.StandardFault;
 import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.config.EnumCountMode;
+import su.erik.tabledataloader.config.EnumCsvParser;
+import su.erik.tabledataloader.config.EnumInListStrategy;
 import su.erik.tabledataloader.config.StandardParam;
 import su.erik.tabledataloader.dto.DataResponse;
+import su.erik.tabledataloader.dto.DataStreamResponse;
 import su.erik.tabledataloader.dto.ExportResource;
 import su.erik.tabledataloader.dto.InputFile;
 import su.erik.tabledataloader.dto.LoaderHttpStatus;
 import su.erik.tabledataloader.exporter.ExportedFile;
 import su.erik.tabledataloader.exporter.FileExporter;
+import su.erik.tabledataloader.importer.ImportListener;
 import su.erik.tabledataloader.importer.ImportMapper;
+import su.erik.tabledataloader.importer.job.ImportJob;
+import su.erik.tabledataloader.importer.job.ImportJobInfo;
 import su.erik.tabledataloader.importer.loader.FileLoader;
 import su.erik.tabledataloader.importer.model.ResultDTO;
+import su.erik.tabledataloader.importer.pipeline.ImportPipelineConfig;
 import su.erik.tabledataloader.exporter.ZipExporter;
 import su.erik.tabledataloader.context.DataLoaderContext;
 import su.erik.tabledataloader.param.HeaderUtils;
+import su.erik.tabledataloader.param.KeysetCursor;
 import su.erik.tabledataloader.param.MapParam;
 import su.erik.tabledataloader.spi.MapParamProvider;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Deflater;
 
 /**
  * Универсальный загрузчик данных (TableDataLoader).
@@ -41,11 +61,20 @@ public class TableDataLoader<T> {
     private Function<MapParam, T> saveDataStrategy;
     private Function<MapParam, Long> execDataStrategy;
     private Function<MapParam, Long> countFetcherStrategy;
+    private Function<MapParam, Long> countEstimatorStrategy;
+    private EnumCountMode countMode = EnumCountMode.EXACT;
+    private String resultCacheRegion;
+    private String countCacheRegion;
+    private String singleFlightRegion;
     private Function<MapParam, Iterable<T>> childListFetcherStrategy;
     private List<String> replaceParentByChildFields;
     private Consumer<T> forEachConsumer;
     private ImportMapper<T> importMapper;
+    private int childChunkSize = Constant.MAX_IN_LIST_SIZE;
+    private Executor childFetchExecutor;
     private boolean archiveResult = false;
+    private int archiveCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private boolean streamResult = false;
 
     private TableDataLoader(DataLoaderContext context) {
         this.context = context;
@@ -80,11 +109,20 @@ public class TableDataLoader<T> {
     public TableDataLoader<T> useToSave(Function<MapParam, T> strategy) { this.saveDataStrategy = strategy; return this; }
     public TableDataLoader<T> useToExec(Function<MapParam, Long> strategy) { this.execDataStrategy = strategy; return this; }
     public TableDataLoader<T> useToCount(Function<MapParam, Long> strategy) { this.countFetcherStrategy = strategy; return this; }
+    public TableDataLoader<T> useToEstimateCount(Function<MapParam, Long> strategy) { this.countEstimatorStrategy = strategy; return this; }
+    public TableDataLoader<T> setCountMode(EnumCountMode mode) { this.countMode = mode; return this; }
+    public TableDataLoader<T> cacheCount(String region) { this.countCacheRegion = Objects.requireNonNull(region, "region"); this.countMode = EnumCountMode.CACHED; return this; }
+    public TableDataLoader<T> singleFlight(String region) { this.singleFlightRegion = Objects.requireNonNull(region, "region"); return this; }
+    public TableDataLoader<T> cacheResult(String region) { this.resultCacheRegion = Objects.requireNonNull(region, "region"); return this; }
     public TableDataLoader<T> useChildList(Function<MapParam, Iterable<T>> strategy) { this.childListFetcherStrategy = strategy; return this; }
+    public TableDataLoader<T> setChildChunkSize(int chunkSize) { if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive"); this.childChunkSize = chunkSize; return this; }
+    public TableDataLoader<T> parallelChildFetch(Executor executor) { this.childFetchExecutor = executor; return this; }
     public TableDataLoader<T> replaceParentByChild(List<String> fields) { this.replaceParentByChildFields = fields; return this; }
     public TableDataLoader<T> setForEachConsumer(Consumer<T> consumer) { this.forEachConsumer = consumer; return this; }
     public TableDataLoader<T> useImportMapper(ImportMapper<T> mapper) { this.importMapper = mapper; return this; }
     public TableDataLoader<T> archiveResult() { this.archiveResult = true; return this; }
+    public TableDataLoader<T> archiveResult(int compressionLevel) { this.archiveResult = true; this.archiveCompressionLevel = compressionLevel; return this; }
+    public TableDataLoader<T> streamResult() { this.streamResult = true; return this; }
     public TableDataLoader<T> setMapParam(MapParam param) { this.mapParam = param; return this; }
     public MapParam getMapParam() { if (mapParam == null) mapParam = new MapParam(); return mapParam; }
     
@@ -92,18 +130,154 @@ public class TableDataLoader<T> {
     public TableDataLoader<T> setMapParam(String field, String operator, Object value) { getMapParam().addCriteria(field, operator, value); return this; }
     public TableDataLoader<T> setLimit(int limit) { getMapParam().setLimit(limit); return this; }
     public TableDataLoader<T> addOrderBy(String sortField, String sortOrder) { getMapParam().addOrderBy(sortField, sortOrder); return this; }
+    public TableDataLoader<T> useKeysetPagination() { getMapParam().setKeysetPagination(true); return this; }
+    public TableDataLoader<T> setCursor(String cursor) { getMapParam().setCursor(KeysetCursor.decode(cursor)); return this; }
     public TableDataLoader<T> setHeaderRowNumber(int rowNumber) { getMapParam().filter(StandardParam.HEADER_ROW_NUMBER.getKey(), rowNumber); return this; }
     public TableDataLoader<T> setColumnMapper(Map<String, Integer> columnMapper) { getMapParam().filter(StandardParam.COLUMN_MAPPER.getKey(), columnMapper); return this; }
+    public TableDataLoader<T> setBatchSize(int batchSize) { getMapParam().filter(StandardParam.BATCH_SIZE.getKey(), batchSize); return this; }
+    public TableDataLoader<T> setInListStrategy(EnumInListStrategy strategy) { getMapParam().setInListStrategy(strategy); return this; }
+    public TableDataLoader<T> bindMasterListId() { getMapParam().setMasterListBinding(true); return this; }
+    public TableDataLoader<T> setCharset(Charset charset) { getMapParam().filter(StandardParam.CHARSET.getKey(), charset); return this; }
+    public TableDataLoader<T> setCsvParser(EnumCsvParser parser) { getMapParam().filter(StandardParam.CSV_PARSER.getKey(), parser); return this; }
+    public TableDataLoader<T> setImportPipeline(ImportPipelineConfig config) { getMapParam().filter(StandardParam.IMPORT_PIPELINE.getKey(), config); return this; }
+    public TableDataLoader<T> enableCheckpoints() { getMapParam().filter(StandardParam.CHECKPOINT_STORE.getKey(), context.getCheckpointStore()); return this; }
+    public TableDataLoader<T> resumeUpload(long uploadId) { enableCheckpoints(); getMapParam().filter(StandardParam.RESUME_UPLOAD_ID.getKey(), uploadId); return this; }
+    public TableDataLoader<T> setParseParallelism(int parallelism) { getMapParam().filter(StandardParam.PARSE_PARALLELISM.getKey(), parallelism); return this; }
+    public TableDataLoader<T> setArchiveParallelism(int parallelism) { getMapParam().filter(StandardParam.ARCHIVE_PARALLELISM.getKey(), parallelism); return this; }
 
+    /**
+     * Выборка страницы. С cacheResult(region) страница, total и заголовки берутся из кэша контекста,
+     * с singleFlight(region) одновременные вызовы с тем же ключом ждут одну загрузку. Ключ — регион,
+     * отпечаток MapParam.fingerprint() и настройки загрузчика, влияющие на ответ (режим подсчёта, master-detail).
+     * Регион задаёт вызывающий: один регион — одни и те же стратегии выборки, подсчёта, детей и forEachConsumer.
+     * Вызывающий получает свою копию списка и заголовков (сами элементы общие, forEachConsumer и master-detail
+     * применяются один раз). Пользователь и роли из MapParamProvider входят в отпечаток, поэтому разные
+     * пользователи не смешиваются.
+     */
     public DataResponse<T> build() {
         if (getDataStrategy == null) return new DataResponse<>(Collections.emptyList(), 0L, HeaderUtils.createResponseHeaders(mapParam, 0), responseStatus);
+        if (resultCacheRegion == null && singleFlightRegion == null) return fetchPage();
+
+        List<Object> query = List.of(mapParam.fingerprint(), outputSettings());
+        Supplier<DataResponse<T>> loader = (singleFlightRegion != null)
+                ? () -> context.getSingleFlight().execute(List.of(singleFlightRegion, query), this::fetchSharedPage)
+                : this::fetchSharedPage;
+        DataResponse<T> shared = (resultCacheRegion != null)
+                ? context.getResultCache().get(resultCacheRegion, query, loader)
+                : loader.get();
+        return new DataResponse<>(new ArrayList<>(shared.items()), shared.total(), new HashMap<>(shared.headers()), responseStatus);
+    }
+
+    /**
+     * Настройки, от которых зависит ответ при той же выборке: вызовы с разными настройками не делят страницу.
+     */
+    private List<Object> outputSettings() {
+        return Arrays.asList(countMode, countCacheRegion, countFetcherStrategy != null, countEstimatorStrategy != null,
+                forEachConsumer != null, childListFetcherStrategy != null, replaceParentByChildFields, childChunkSize);
+    }
+
+    /**
+     * Страница в неизменяемом виде для кэша и совместной выборки.
+     */
+    private DataResponse<T> fetchSharedPage() {
+        DataResponse<T> page = fetchPage();
+        return new DataResponse<>(Collections.unmodifiableList(new ArrayList<>(page.items())), page.total(),
+                Collections.unmodifiableMap(new HashMap<>(page.headers())), page.status());
+    }
+
+    private DataResponse<T> fetchPage() {
+        Integer limit = mapParam.getLimit();
+        boolean probe = countMode == EnumCountMode.HAS_MORE && limit != null && limit > 0;
+        List<T> items = probe ? fetchWithProbeRow(limit) : fetchItems();
+        boolean hasMore = probe && items.size() > limit;
+        if (hasMore) items.subList(limit, items.size()).clear();
+        // Курсор — до forEachConsumer и master-detail: они могут изменить или заменить последнюю строку
+        String nextCursor = (!probe || hasMore) ? HeaderUtils.nextCursor(mapParam, items) : null;
+        if (forEachConsumer != null) items.forEach(forEachConsumer);
+        if (childListFetcherStrategy != null && !items.isEmpty() && items.get(0) instanceof Map) processMasterDetail(items);
+
+        if (probe) {
+            Map<String, String> headers = HeaderUtils.createResponseHeaders(mapParam, 0);
+            headers.remove(Constant.X_PAGINATION_TOTAL_ENTRIES);
+            if (nextCursor != null) headers.put(Constant.X_PAGINATION_NEXT_CURSOR, nextCursor);
+            headers.put(Constant.X_PAGINATION_HAS_MORE, String.valueOf(hasMore));
+            return new DataResponse<>(items, null, headers, responseStatus);
+        }
+        Long fetchedCount = fetchTotalCount();
+        long totalCount = (fetchedCount != null) ? fetchedCount : items.size();
+        Map<String, String> headers = HeaderUtils.createResponseHeaders(mapParam, totalCount);
+        if (nextCursor != null) headers.put(Constant.X_PAGINATION_NEXT_CURSOR, nextCursor);
+        if (countMode == EnumCountMode.ESTIMATED && countEstimatorStrategy != null) headers.put(Constant.X_PAGINATION_TOTAL_ESTIMATED, "true");
+        return new DataResponse<>(items, totalCount, headers, responseStatus);
+    }
+
+    private List<T> fetchItems() {
         List<T> items = new ArrayList<>();
         Iterable<T> iterator = getDataStrategy.apply(mapParam);
         if (iterator != null) iterator.forEach(items::add);
-        if (forEachConsumer != null) items.forEach(forEachConsumer);
-        if (childListFetcherStrategy != null && !items.isEmpty() && items.get(0) instanceof Map) processMasterDetail(items);
-        long totalCount = (countFetcherStrategy != null) ? countFetcherStrategy.apply(mapParam) : items.size();
-        return new DataResponse<>(items, totalCount, HeaderUtils.createResponseHeaders(mapParam, totalCount), responseStatus);
+        return items;
+    }
+
+    /**
+     * Выборка на одну строку больше страницы (режим HAS_MORE); исходный limit восстанавливается.
+     */
+    private List<T> fetchWithProbeRow(int limit) {
+        Object previous = mapParam.getFilters().get(StandardParam.PER_PAGE.getKey());
+        mapParam.setLimit(limit + 1);
+        try {
+            return fetchItems();
+        } finally {
+            if (previous != null) mapParam.getFilters().put(StandardParam.PER_PAGE.getKey(), previous);
+            else mapParam.getFilters().remove(StandardParam.PER_PAGE.getKey());
+        }
+    }
+
+    /**
+     * Общее количество по countMode; null — подсчёт не задан или пропущен (HAS_MORE).
+     * В режиме CACHED ключ кэша — регион из cacheCount(region) и MapParam.selectionFingerprint().
+     */
+    private Long fetchTotalCount() {
+        return switch (countMode) {
+            case HAS_MORE -> null;
+            case ESTIMATED -> (countEstimatorStrategy != null) ? countEstimatorStrategy.apply(mapParam) : fetchExactCount();
+            case CACHED -> {
+                if (countCacheRegion == null) throw new IllegalStateException("Count cache region is not set, use cacheCount(region)");
+                yield (countFetcherStrategy != null)
+                        ? context.getCountCache().get(countCacheRegion, mapParam.selectionFingerprint(), this::fetchExactCount)
+                        : null;
+            }
+            case EXACT -> fetchExactCount();
+        };
+    }
+
+    private Long fetchExactCount() {
+        return (countFetcherStrategy != null) ? countFetcherStrategy.apply(mapParam) : null;
+    }
+
+    /**
+     * Потоковая выборка без материализации списка: элементы читаются из источника (например, курсора MyBatis)
+     * по мере потребления стрима. forEachConsumer применяется к каждому элементу при чтении,
+     * master-detail — порциями по Constant.MAX_PER_PAGE родителей.
+     * Если countFetcher не задан, total равен null, а количество доступно через streamedCount().
+     */
+    public DataStreamResponse<T> buildStream() {
+        Iterable<T> source = (getDataStrategy != null) ? getDataStrategy.apply(mapParam) : null;
+        Long totalCount = fetchTotalCount();
+        Map<String, String> headers = HeaderUtils.createResponseHeaders(mapParam, totalCount != null ? totalCount : 0L);
+        if (totalCount == null) headers.remove(Constant.X_PAGINATION_TOTAL_ENTRIES);
+
+        StreamingIterator iterator = new StreamingIterator(source != null ? source.iterator() : Collections.emptyIterator());
+        Stream<T> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+        if (source instanceof AutoCloseable closeable) {
+            stream = stream.onClose(() -> {
+                try {
+                    closeable.close();
+                } catch (Exception exception) {
+                    throw new StandardFault(exception);
+                }
+            });
+        }
+        return new DataStreamResponse<>(stream, totalCount, headers, responseStatus, iterator::streamedCount);
     }
 
     public DataResponse<T> build(BuildMode mode) {
@@ -128,8 +302,11 @@ public class TableDataLoader<T> {
 
     public ExportResource build(Class<? extends FileExporter> viewClass, String fileName) {
         try {
-            Iterable<T> result = getDataStrategy.apply(mapParam);
-            if (result == null || !result.iterator().hasNext()) return new ExportResource(fileName, Constant.CONTENT_TYPE_OCTET_STREAM, InputStream.nullInputStream(), 0, LoaderHttpStatus.NO_CONTENT);
+            Iterable<T> source = getDataStrategy.apply(mapParam);
+            Iterator<T> iterator = (source != null) ? source.iterator() : null;
+            if (iterator == null || !iterator.hasNext()) return new ExportResource(fileName, Constant.CONTENT_TYPE_OCTET_STREAM, InputStream.nullInputStream(), 0, LoaderHttpStatus.NO_CONTENT);
+            // Итератор открывается один раз: курсор MyBatis не допускает повторного iterator()
+            Iterable<T> result = () -> iterator;
 
             FileExporter exporter;
             if (forEachConsumer != null) {
@@ -139,10 +316,10 @@ public class TableDataLoader<T> {
             }
 
             if (archiveResult) {
-                exporter = new ZipExporter(exporter, fileName);
+                exporter = new ZipExporter(exporter, fileName, archiveCompressionLevel);
             }
 
-            try (ExportedFile exportedFile = exporter.export()) {
+            try (ExportedFile exportedFile = streamResult ? exporter.exportStreaming() : exporter.export()) {
                 return new ExportResource(
                         exporter.getFullFileName(fileName),
                         Constant.CONTENT_TYPE_OCTET_STREAM,
@@ -164,6 +341,7 @@ public class TableDataLoader<T> {
         if (importMapper == null) throw new IllegalStateException("ImportMapper not set");
         try {
             InputFile inputFile = getInputFile();
+            prepareImportFilters();
             FileLoader loader = context.getLoaderRegistry().createLoader(extension, dtoClass, importMapper, mapParam.getFilters());
             return executeLoad(loader, inputFile);
         } catch (BaseFaultException exception) { throw exception; } catch (Exception exception) { throw new StandardFault(exception); }
@@ -173,18 +351,94 @@ public class TableDataLoader<T> {
         if (importMapper == null) throw new IllegalStateException("ImportMapper not set");
         try {
             InputFile inputFile = getInputFile();
+            prepareImportFilters();
             FileLoader loader = context.getLoaderRegistry().createLoader(loaderClass, dtoClass, importMapper, mapParam.getFilters());
             return executeLoad(loader, inputFile);
         } catch (BaseFaultException exception) { throw exception; } catch (Exception exception) { throw new StandardFault(exception); }
     }
 
+    /**
+     * Асинхронный импорт: файл копируется во временный файл, импорт ставится в реестр задач контекста,
+     * а ответ сразу возвращается со статусом ACCEPTED, снимком задачи и её id в заголовке X-Import-Job-Id.
+     * Состояние, ход импорта, отмена и итог — через context.getImportJobRegistry() по id задачи.
+     * <p>
+     * Импорт идёт вне потока и транзакции запроса: маппер не должен от них зависеть.
+     */
+    public DataResponse<ImportJobInfo> buildAsync(Class<T> dtoClass) {
+        InputFile inputFile = getInputFile();
+        String extension = getExtension(inputFile.getOriginalFilename()).replace(".", "").toLowerCase();
+        return buildAsync(extension, dtoClass);
+    }
+
+    public DataResponse<ImportJobInfo> buildAsync(String extension, Class<T> dtoClass) {
+        if (importMapper == null) throw new IllegalStateException("ImportMapper not set");
+        InputFile inputFile = getInputFile();
+        String fileName = inputFile.getOriginalFilename();
+        long fileSize = inputFile.getSize();
+        String entity = (String) mapParam.getFilters().get(Constant.ENTITY_PARAM);
+        Long userId = mapParam.getUserId();
+
+        // Загруженный файл живёт только до конца запроса, поэтому задача читает свою копию
+        Path spooled;
+        try {
+            spooled = Files.createTempFile(Constant.TEMP_IMPORT_JOB_NAME, extension.isEmpty() ? null : "." + extension);
+            try (InputStream inputStream = inputFile.getInputStream()) {
+                Files.copy(inputStream, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException exception) {
+            throw new StandardFault(exception);
+        }
+
+        prepareImportFilters();
+        // Задача работает со своей копией фильтров: общий MapParam запроса не меняется из потока задачи
+        Map<String, Object> filters = new HashMap<>(mapParam.getFilters());
+        ImportListener listener = StandardParam.IMPORT_LISTENER.getFrom(filters);
+        ImportJob job;
+        try {
+            job = context.getImportJobRegistry().submit(fileName, importMapper, listener, (mapper, importJob) -> {
+                try {
+                    filters.put(StandardParam.IMPORT_LISTENER.getKey(), importJob);
+                    FileLoader loader = context.getLoaderRegistry().createLoader(extension, dtoClass, mapper, filters);
+                    return loader.importFile(spooled, fileName, fileSize, entity, userId);
+                } finally {
+                    Files.deleteIfExists(spooled);
+                }
+            });
+        } catch (RuntimeException exception) {
+            try { Files.deleteIfExists(spooled); } catch (IOException _) { /* временный файл */ }
+            throw exception;
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constant.X_IMPORT_JOB_ID, job.getId());
+        return new DataResponse<>(List.of(job.getInfo()), 1L, headers, LoaderHttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Настройки импорта из контекста, если они не заданы для вызова.
+     */
+    private void prepareImportFilters() {
+        mapParam.getFilters().putIfAbsent(StandardParam.LOADER_REGISTRY.getKey(), context.getLoaderRegistry());
+        if (context.getImportPipelineConfig() != null) {
+            mapParam.getFilters().putIfAbsent(StandardParam.IMPORT_PIPELINE.getKey(), context.getImportPipelineConfig());
+        }
+        if (context.getImportListener() != null) {
+            mapParam.getFilters().putIfAbsent(StandardParam.IMPORT_LISTENER.getKey(), context.getImportListener());
+        }
+    }
+
     private DataResponse<ResultDTO> executeLoad(FileLoader loader, InputFile inputFile) {
-        try (InputStream inputStream = inputFile.getInputStream()) {
-            String fileName = inputFile.getOriginalFilename();
-            long fileSize = inputFile.getSize();
-            String entity = (String) mapParam.getFilters().get(Constant.ENTITY_PARAM);
-            Long userId = mapParam.getUserId();
+        String fileName = inputFile.getOriginalFilename();
+        long fileSize = inputFile.getSize();
+        String entity = (String) mapParam.getFilters().get(Constant.ENTITY_PARAM);
+        Long userId = mapParam.getUserId();
 
+        // Файл на локальном диске отдаём загрузчику путём: архивы читаются с произвольным доступом
+        Path localPath = inputFile.getLocalPath();
+        if (localPath != null) {
+            return createImportResponse(Collections.singletonList(loader.importFile(localPath, fileName, fileSize, entity, userId)));
+        }
+        try (InputStream inputStream = inputFile.getInputStream()) {
             ResultDTO result = loader.importFile(inputStream, fileName, fileSize, entity, userId);
             return createImportResponse(Collections.singletonList(result));
         } catch (Exception exception) {
@@ -209,23 +463,111 @@ public class TableDataLoader<T> {
         return (dotIndex >= 0) ? fileName.substring(dotIndex + 1) : "";
     }
 
+    /**
+     * Master-detail как hash join: корзины детей заранее создаются по ID родителей,
+     * дети раскладываются по ним за один проход. ID запрашиваются порциями по childChunkSize
+     * (лимит IN), порции могут выполняться параллельно на childFetchExecutor.
+     */
     private void processMasterDetail(List<T> data) {
-        List<Object> masterIds = data.stream().map(item -> ((Map<String, Object>) item).get(Constant.MASTER_ID)).filter(Objects::nonNull).map(id -> (id instanceof String) ? "'" + id + "'" : id).collect(Collectors.toList());
-        mapParam.setMasterListId(masterIds);
-        Iterable<T> childrenIterator = childListFetcherStrategy.apply(mapParam);
-        if (childrenIterator == null) return;
-        List<Map<String, Object>> children = new ArrayList<>();
-        childrenIterator.forEach(item -> children.add((Map<String, Object>) item));
-        if (children.isEmpty()) return;
-        Map<Object, List<Map<String, Object>>> groupedChildren = children.stream().filter(map -> map.get(Constant.MASTER_ID) != null).collect(Collectors.groupingBy(map -> map.get(Constant.MASTER_ID)));
+        boolean bindMasterIds = mapParam.isMasterListBinding();
+        Map<Object, List<Map<String, Object>>> buckets = HashMap.newHashMap(data.size());
+        List<Object> masterIds = new ArrayList<>(data.size());
+        for (T item : data) {
+            Object masterId = ((Map<String, Object>) item).get(Constant.MASTER_ID);
+            if (masterId != null && buckets.putIfAbsent(masterId, new ArrayList<>()) == null) {
+                // Для фрагментов с ${item} строковые ID подставляются в кавычках с удвоением кавычек внутри;
+                // bindMasterListId() передаёт их как есть
+                masterIds.add((masterId instanceof String text && !bindMasterIds) ? "'" + text.replace("'", "''") + "'" : masterId);
+            }
+        }
+
+        long childCount = 0;
+        if (childFetchExecutor != null && masterIds.size() > childChunkSize) {
+            List<CompletableFuture<Iterable<T>>> futures = new ArrayList<>();
+            for (int from = 0; from < masterIds.size(); from += childChunkSize) {
+                // Каждой порции — своя копия MapParam: masterListId у параллельных запросов разный
+                MapParam chunkParam = mapParam.copy().setMasterListId(masterIds.subList(from, Math.min(from + childChunkSize, masterIds.size())));
+                futures.add(CompletableFuture.supplyAsync(() -> childListFetcherStrategy.apply(chunkParam), childFetchExecutor));
+            }
+            try {
+                for (CompletableFuture<Iterable<T>> future : futures) childCount += distributeChildren(future.join(), buckets);
+            } catch (CompletionException exception) {
+                futures.forEach(future -> future.cancel(true));
+                throw (exception.getCause() instanceof RuntimeException cause) ? cause : exception;
+            }
+        } else {
+            for (int from = 0; from < masterIds.size(); from += childChunkSize) {
+                mapParam.setMasterListId(masterIds.subList(from, Math.min(from + childChunkSize, masterIds.size())));
+                childCount += distributeChildren(childListFetcherStrategy.apply(mapParam), buckets);
+            }
+        }
+        if (childCount == 0) return;
+
         for (T item : data) {
             Map<String, Object> master = (Map<String, Object>) item;
             Object masterId = master.get(Constant.MASTER_ID);
-            List<Map<String, Object>> relevantChildren = (masterId != null) ? groupedChildren.getOrDefault(masterId, Collections.emptyList()) : Collections.emptyList();
+            List<Map<String, Object>> relevantChildren = (masterId != null) ? buckets.get(masterId) : Collections.emptyList();
             assignRecord(master, relevantChildren);
         }
     }
 
+    private long distributeChildren(Iterable<T> children, Map<Object, List<Map<String, Object>>> buckets) {
+        if (children == null) return 0;
+        long count = 0;
+        for (T item : children) {
+            Map<String, Object> child = (Map<String, Object>) item;
+            count++;
+            Object masterId = child.get(Constant.MASTER_ID);
+            if (masterId == null) continue;
+            List<Map<String, Object>> bucket = buckets.get(masterId);
+            if (bucket != null) bucket.add(child);
+        }
+        return count;
+    }
+
+    /**
+     * Итератор потоковой выборки: применяет forEachConsumer и master-detail к порции элементов при чтении.
+     */
+    private class StreamingIterator implements Iterator<T> {
+        private final Iterator<T> source;
+        private final int chunkSize;
+        private final List<T> chunk;
+        private int position = 0;
+        private long streamed = 0;
+
+        StreamingIterator(Iterator<T> source) {
+            this.source = source;
+            // Без master-detail буферизация не нужна: элементы отдаются по одному
+            this.chunkSize = (childListFetcherStrategy != null) ? Constant.MAX_PER_PAGE : 1;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < chunk.size()) return true;
+            chunk.clear();
+            position = 0;
+            while (chunk.size() < chunkSize && source.hasNext()) {
+                T item = source.next();
+                if (forEachConsumer != null) forEachConsumer.accept(item);
+                chunk.add(item);
+            }
+            if (childListFetcherStrategy != null && !chunk.isEmpty() && chunk.get(0) instanceof Map) processMasterDetail(chunk);
+            return !chunk.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            streamed++;
+            return chunk.get(position++);
+        }
+
+        long streamedCount() {
+            return streamed;
+        }
+    }
+
     private void assignRecord(Map<String, Object> master, List<Map<String, Object>> children) {
         if (replaceParentByChildFields != null && !replaceParentByChildFields.isEmpty()) {
             if (children.size() == 1) { master.clear(); master.putAll(children.get(0)); return; }
@@ -21,6 +21,14 @@ public abstract class AbstractIterator implements Iterator<EntryModel>, AutoClos
     protected abstract long getCurrentEntrySize();
     protected abstract void moveToNextEntry() throws IOException;
 
+    /**
+     * true, если поток каждого элемента независим от итератора (архив с произвольным доступом).
+     * Такой поток не экранируется от закрытия, его закрывает потребитель, и он остаётся читаемым после перехода к следующему элементу.
+     */
+    protected boolean isEntryStreamIndependent() {
+        return false;
+    }
+
     // Сужаем контракт исключения до IOException для try-with-resources
     @Override
     public abstract void close() throws IOException;
@@ -48,7 +56,7 @@ public abstract class AbstractIterator implements Iterator<EntryModel>, AutoClos
             EntryModel entry = new EntryModel(
                     getCurrentEntryName(),
                     getCurrentEntrySize(),
-                    new ShieldedInputStream(getCurrentStream())
+                    isEntryStreamIndependent() ? getCurrentStream() : new ShieldedInputStream(getCurrentStream())
             );
             
             advanceOnNext = true;
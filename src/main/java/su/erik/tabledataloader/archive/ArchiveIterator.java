@@ -1,8 +1,14 @@
 package su.erik.tabledataloader.archive;
 
+import su.erik.tabledataloader.config.Constant;
+
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Фасад для работы с архивами различных типов.
@@ -12,12 +18,57 @@ public class ArchiveIterator implements Iterator<EntryModel>, AutoCloseable {
     private final AbstractIterator delegate;
 
     public ArchiveIterator(InputStream inputStream, String fileName) throws IOException {
-        if (fileName.toLowerCase().endsWith(".zip")) {
-            this.delegate = new ZipArchiveIterator(inputStream);
+        this.delegate = open(inputStream, fileName);
+    }
+
+    /**
+     * Открывает архив с локального диска. ZIP читается через ZipFile с произвольным доступом к элементам.
+     */
+    public ArchiveIterator(Path path, String fileName) throws IOException {
+        if (fileName.toLowerCase().endsWith(Constant.ZIP)) {
+            this.delegate = new ZipFileArchiveIterator(path);
         } else {
-            // В будущем добавим Rar и 7z
-            throw new UnsupportedOperationException("Unsupported archive type: " + fileName);
+            InputStream inputStream = Files.newInputStream(path);
+            try {
+                this.delegate = open(inputStream, fileName);
+            } catch (IOException | RuntimeException e) {
+                // Повреждённый gz или неподдерживаемый тип: файл закрывается здесь, итератора у вызывающего нет
+                try {
+                    inputStream.close();
+                } catch (IOException closeException) {
+                    e.addSuppressed(closeException);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Создаёт потоковый итератор по имени файла: zip, tar, tar.gz/tgz, gz (один файл, распаковывается на лету).
+     */
+    public static AbstractIterator open(InputStream inputStream, String fileName) throws IOException {
+        String lowerName = fileName.toLowerCase();
+        if (lowerName.endsWith(Constant.ZIP)) {
+            return new ZipArchiveIterator(inputStream);
+        } else if (lowerName.endsWith(Constant.TAR_GZIP) || lowerName.endsWith(Constant.TGZ)) {
+            return new TarArchiveIterator(new GZIPInputStream(new BufferedInputStream(inputStream)));
+        } else if (lowerName.endsWith(Constant.TAR)) {
+            return new TarArchiveIterator(inputStream);
+        } else if (lowerName.endsWith(Constant.GZIP)) {
+            return new GzipArchiveIterator(inputStream, fileName);
         }
+        // В будущем добавим Rar и 7z
+        throw new UnsupportedOperationException("Unsupported archive type: " + fileName);
+    }
+
+    /**
+     * Проверяет, есть ли итератор для архива с таким именем.
+     */
+    public static boolean isSupported(String fileName) {
+        if (fileName == null) return false;
+        String lowerName = fileName.toLowerCase();
+        return lowerName.endsWith(Constant.ZIP) || lowerName.endsWith(Constant.TGZ)
+                || lowerName.endsWith(Constant.TAR) || lowerName.endsWith(Constant.GZIP);
     }
 
     @Override
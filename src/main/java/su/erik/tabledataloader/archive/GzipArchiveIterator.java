@@ -0,0 +1,54 @@
+package su.erik.tabledataloader.archive;
+
+import su.erik.tabledataloader.config.Constant;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Итератор gzip-файла: один элемент, который распаковывается на лету при чтении.
+ * Имя элемента — имя файла без ".gz" (report.csv.gz -> report.csv).
+ */
+public class GzipArchiveIterator extends AbstractIterator {
+
+    private final GZIPInputStream gzipStream;
+
+    public GzipArchiveIterator(InputStream inputStream, String fileName) throws IOException {
+        this.gzipStream = new GZIPInputStream(new BufferedInputStream(inputStream));
+        this.currentEntry = stripExtension(fileName);
+    }
+
+    @Override
+    protected InputStream getCurrentStream() {
+        return gzipStream;
+    }
+
+    @Override
+    protected String getCurrentEntryName() {
+        return (String) currentEntry;
+    }
+
+    @Override
+    protected long getCurrentEntrySize() {
+        // ISIZE в конце файла хранит размер по модулю 2^32 и недоступен без чтения всего потока
+        return -1;
+    }
+
+    @Override
+    protected void moveToNextEntry() {
+        currentEntry = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        gzipStream.close();
+    }
+
+    private static String stripExtension(String fileName) {
+        if (fileName == null) return "";
+        String lowerName = fileName.toLowerCase();
+        return lowerName.endsWith(Constant.GZIP) ? fileName.substring(0, fileName.length() - Constant.GZIP.length()) : fileName;
+    }
+}
@@ -0,0 +1,210 @@
+package su.erik.tabledataloader.archive;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Потоковый итератор tar-архива (ustar, GNU long name, pax path/size).
+ * Для tar.gz передаётся уже распакованный поток (GZIPInputStream).
+ * Возвращаются только обычные файлы; каталоги, ссылки и служебные заголовки пропускаются.
+ */
+public class TarArchiveIterator extends AbstractIterator {
+
+    private static final int BLOCK_SIZE = 512;
+
+    private record TarEntry(String name, long size) {}
+
+    private final InputStream tarStream;
+    private final byte[] header = new byte[BLOCK_SIZE];
+    private final EntryInputStream entryStream = new EntryInputStream();
+
+    public TarArchiveIterator(InputStream inputStream) throws IOException {
+        this.tarStream = new BufferedInputStream(inputStream);
+        this.currentEntry = readNextEntry();
+    }
+
+    @Override
+    protected InputStream getCurrentStream() {
+        return entryStream;
+    }
+
+    @Override
+    protected String getCurrentEntryName() {
+        return ((TarEntry) currentEntry).name();
+    }
+
+    @Override
+    protected long getCurrentEntrySize() {
+        return ((TarEntry) currentEntry).size();
+    }
+
+    @Override
+    protected void moveToNextEntry() throws IOException {
+        if (currentEntry != null) {
+            skipFully(entryStream.remaining + padding(((TarEntry) currentEntry).size()));
+        }
+        currentEntry = readNextEntry();
+    }
+
+    @Override
+    public void close() throws IOException {
+        tarStream.close();
+    }
+
+    private TarEntry readNextEntry() throws IOException {
+        String longName = null;
+        Long paxSize = null;
+        while (true) {
+            if (!readHeader()) return null;
+
+            String name = readString(0, 100);
+            long size = readSize();
+            byte type = header[156];
+            if (isUstar()) {
+                String prefix = readString(345, 155);
+                if (!prefix.isEmpty()) name = prefix + "/" + name;
+            }
+
+            switch (type) {
+                case 'L' -> { // GNU: длинное имя следующего элемента
+                    longName = trimNul(new String(readContent(size), StandardCharsets.UTF_8));
+                    continue;
+                }
+                case 'x' -> { // pax: расширенные атрибуты следующего элемента
+                    String records = new String(readContent(size), StandardCharsets.UTF_8);
+                    String paxPath = readPaxValue(records, "path");
+                    if (paxPath != null) longName = paxPath;
+                    String sizeValue = readPaxValue(records, "size");
+                    if (sizeValue != null) paxSize = Long.parseLong(sizeValue);
+                    continue;
+                }
+                default -> { }
+            }
+
+            if (longName != null) name = longName;
+            if (paxSize != null) size = paxSize;
+            if (type == '0' || type == 0 || type == '7') {
+                entryStream.remaining = size;
+                return new TarEntry(name, size);
+            }
+            // Каталоги, ссылки, глобальные pax-заголовки и т.п.
+            skipFully(size + padding(size));
+            longName = null;
+            paxSize = null;
+        }
+    }
+
+    /**
+     * Читает заголовок. false — конец архива (нулевой блок или конец потока).
+     */
+    private boolean readHeader() throws IOException {
+        int read = tarStream.readNBytes(header, 0, BLOCK_SIZE);
+        if (read == 0) return false;
+        if (read < BLOCK_SIZE) throw new EOFException("Truncated tar header");
+        for (byte value : header) {
+            if (value != 0) return true;
+        }
+        return false;
+    }
+
+    private byte[] readContent(long size) throws IOException {
+        byte[] content = tarStream.readNBytes((int) size);
+        if (content.length < size) throw new EOFException("Truncated tar entry");
+        skipFully(padding(size));
+        return content;
+    }
+
+    private boolean isUstar() {
+        return header[257] == 'u' && header[258] == 's' && header[259] == 't' && header[260] == 'a' && header[261] == 'r';
+    }
+
+    private long readSize() {
+        // GNU base-256 для файлов больше 8 ГБ
+        if ((header[124] & 0x80) != 0) {
+            long size = 0;
+            for (int i = 125; i < 136; i++) size = (size << 8) | (header[i] & 0xFF);
+            return size;
+        }
+        int position = 124;
+        while (position < 136 && header[position] == ' ') position++;
+        long size = 0;
+        for (; position < 136 && header[position] >= '0' && header[position] <= '7'; position++) {
+            size = (size << 3) + (header[position] - '0');
+        }
+        return size;
+    }
+
+    private String readString(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) end++;
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static String readPaxValue(String records, String key) {
+        // Формат записи: "<длина> <ключ>=<значение>\n"
+        for (String record : records.split("\n")) {
+            int space = record.indexOf(' ');
+            int equals = record.indexOf('=');
+            if (space >= 0 && equals > space && record.substring(space + 1, equals).equals(key)) {
+                return record.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String trimNul(String value) {
+        int end = value.indexOf('\0');
+        return (end >= 0) ? value.substring(0, end) : value;
+    }
+
+    private static long padding(long size) {
+        return (BLOCK_SIZE - (size % BLOCK_SIZE)) % BLOCK_SIZE;
+    }
+
+    private void skipFully(long count) throws IOException {
+        tarStream.skipNBytes(count);
+    }
+
+    /**
+     * Поток текущего элемента, ограниченный его размером.
+     */
+    private class EntryInputStream extends InputStream {
+        private long remaining;
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int value = tarStream.read();
+            if (value == -1) throw new EOFException("Truncated tar entry");
+            remaining--;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) return -1;
+            int read = tarStream.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read == -1) throw new EOFException("Truncated tar entry");
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = tarStream.skip(Math.min(count, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(tarStream.available(), remaining);
+        }
+
+        @Override
+        public void close() { /* поток архива закрывается итератором */ }
+    }
+}
@@ -0,0 +1,74 @@
+package su.erik.tabledataloader.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Итератор ZIP-архива на локальном диске.
+ * <p>
+ * В отличие от {@link ZipArchiveIterator} читает центральный каталог: размеры элементов известны заранее,
+ * а элементы, не прошедшие фильтр по имени, пропускаются без распаковки.
+ * Поток каждого элемента независим, поэтому элементы можно читать параллельно, пока итератор не закрыт.
+ */
+public class ZipFileArchiveIterator extends AbstractIterator {
+
+    private final ZipFile zipFile;
+    private final Enumeration<? extends ZipEntry> entries;
+    private final Predicate<String> entryFilter;
+
+    public ZipFileArchiveIterator(Path path) throws IOException {
+        this(path, name -> true);
+    }
+
+    /**
+     * @param entryFilter Фильтр по имени элемента; каталоги пропускаются всегда.
+     */
+    public ZipFileArchiveIterator(Path path, Predicate<String> entryFilter) throws IOException {
+        this.zipFile = new ZipFile(path.toFile());
+        this.entries = zipFile.entries();
+        this.entryFilter = entryFilter;
+        moveToNextEntry();
+    }
+
+    @Override
+    protected InputStream getCurrentStream() throws IOException {
+        return zipFile.getInputStream((ZipEntry) currentEntry);
+    }
+
+    @Override
+    protected String getCurrentEntryName() {
+        return ((ZipEntry) currentEntry).getName();
+    }
+
+    @Override
+    protected long getCurrentEntrySize() {
+        return ((ZipEntry) currentEntry).getSize();
+    }
+
+    @Override
+    protected void moveToNextEntry() {
+        currentEntry = null;
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (!entry.isDirectory() && entryFilter.test(entry.getName())) {
+                currentEntry = entry;
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected boolean isEntryStreamIndependent() {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        zipFile.close();
+    }
+}
@@ -0,0 +1,71 @@
+package su.erik.tabledataloader.cache;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов COUNT с коротким временем жизни для режима EnumCountMode.CACHED.
+ * <p>
+ * Ключ — регион, заданный вызывающим (TableDataLoader.cacheCount), и нормализованный запрос без пагинации
+ * (MapParam.selectionFingerprint), поэтому все страницы одной выборки используют одно значение. При переполнении сначала
+ * удаляются устаревшие записи, затем — ближайшие к истечению.
+ */
+public class CountCache {
+
+    private record Key(String region, Object query) { }
+
+    private record Entry(Long count, long expiresAtNanos) { }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public CountCache(long ttlMillis, int maxSize) {
+        if (ttlMillis <= 0 || maxSize <= 0) throw new IllegalArgumentException("TTL and size must be positive");
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Значение из кэша или результат loader (сохраняется на время жизни кэша).
+     */
+    public Long get(String region, Object query, Supplier<Long> loader) {
+        Key key = new Key(region, query);
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos() - now > 0) {
+            return entry.count();
+        }
+        Long count = loader.get();
+        if (entries.size() >= maxSize) evict(now);
+        entries.put(key, new Entry(count, now + ttlNanos));
+        return count;
+    }
+
+    /**
+     * Сбрасывает значения региона (например, после импорта в таблицу).
+     */
+    public void invalidate(String region) {
+        entries.keySet().removeIf(key -> key.region().equals(region));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0);
+        while (entries.size() >= maxSize) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(candidate -> candidate.getValue().expiresAtNanos()))
+                    .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+}
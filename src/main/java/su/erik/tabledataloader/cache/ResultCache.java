@@ -0,0 +1,90 @@
+package su.erik.tabledataloader.cache;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов выборки (страница и общее количество) для TableDataLoader.cacheResult.
+ * <p>
+ * Записи группируются по региону (обычно таблица или сущность) — после импорта или изменения данных
+ * регион сбрасывается через {@link #invalidate(String)}. Размер ограничен: вытесняются давно не читанные записи (LRU),
+ * устаревшие по TTL удаляются при обращении. Загрузка значения выполняется вне блокировки; если регион
+ * был сброшен во время загрузки, результат возвращается вызывающему, но не сохраняется.
+ */
+public class ResultCache {
+
+    private record Key(String region, Object query) { }
+
+    private record Entry(Object value, long expiresAtNanos) { }
+
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    // Поколения регионов: invalidate увеличивает счётчик, загрузка сохраняется только при неизменном поколении
+    private final Map<String, Long> generations = new HashMap<>();
+    private long globalGeneration = 0;
+
+    public ResultCache(long ttlMillis, int maxSize) {
+        if (ttlMillis <= 0 || maxSize <= 0) throw new IllegalArgumentException("TTL and size must be positive");
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Значение из кэша или результат loader, сохранённый на время жизни кэша.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String region, Object query, Supplier<V> loader) {
+        Key key = new Key(region, query);
+        long now = System.nanoTime();
+        long generation;
+        long global;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAtNanos() - now > 0) return (V) entry.value();
+                entries.remove(key);
+            }
+            generation = generations.getOrDefault(region, 0L);
+            global = globalGeneration;
+        }
+        V value = loader.get();
+        synchronized (entries) {
+            if (global == globalGeneration && generation == generations.getOrDefault(region, 0L)) {
+                entries.put(key, new Entry(value, now + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Сбрасывает все записи региона (например, после импорта в таблицу).
+     */
+    public void invalidate(String region) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.region().equals(region));
+            generations.merge(region, 1L, Long::sum);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            generations.clear();
+            globalGeneration++;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package su.erik.tabledataloader.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных одинаковых загрузок (single-flight).
+ * <p>
+ * Первый вызов с ключом выполняет loader в своём потоке, остальные на время его работы ждут
+ * и получают тот же результат или то же исключение. После завершения ключ освобождается —
+ * результаты не кэшируются (для этого есть {@link ResultCache}).
+ */
+public class SingleFlight {
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Supplier<V> loader) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            try {
+                return (V) leader.join();
+            } catch (CompletionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) throw cause;
+                if (exception.getCause() instanceof Error cause) throw cause;
+                throw exception;
+            }
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error exception) {
+            call.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Количество загрузок, выполняющихся сейчас.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -24,11 +24,22 @@ public final class Constant {
     public static final String EXPANDED_KEY = "expandedKey";
 
     public static final String X_PAGINATION_TOTAL_ENTRIES = "X-Pagination-Total-Entries";
+    public static final String X_PAGINATION_NEXT_CURSOR = "X-Pagination-Next-Cursor";
+    public static final String X_PAGINATION_HAS_MORE = "X-Pagination-Has-More";
+    public static final String X_PAGINATION_TOTAL_ESTIMATED = "X-Pagination-Total-Estimated";
+    public static final String X_IMPORT_JOB_ID = "X-Import-Job-Id";
 
 // --- Defaults & Limits ---
     public static final int DEFAULT_PER_PAGE = 20;
     public static final int DEFAULT_PAGE = 0;
     public static final int MAX_PER_PAGE = 500;
+    // Oracle ограничивает список IN 1000 элементами (ORA-01795)
+    public static final int MAX_IN_LIST_SIZE = 1000;
+    public static final long COUNT_CACHE_TTL_MS = 30_000;
+    public static final int COUNT_CACHE_MAX_SIZE = 1000;
+    public static final long RESULT_CACHE_TTL_MS = 60_000;
+    public static final int RESULT_CACHE_MAX_SIZE = 500;
+    public static final int COMPILED_QUERY_CACHE_MAX_SIZE = 1000;
 
     public static final String TABLE_NAME = "tableName";
     public static final String CONTENT_TYPE_OCTET_STREAM = "application/octet-stream";
@@ -61,6 +72,8 @@ public final class Constant {
     public static final String NEW_LINE_UNIX = "\n";
     public static final String NEW_LINE_WINDOWS = "\r\n";
     public static final Integer DEFAULT_BATCH_SIZE = 100;
+    // Минимальный интервал между отчётами ImportListener.onProgress
+    public static final long IMPORT_PROGRESS_INTERVAL_MS = 1000;
     public static final char SEPARATOR = ';';
     public static final java.nio.charset.Charset WINDOWS_1251_CHARSET = java.nio.charset.Charset.forName("windows-1251");
 
@@ -72,8 +85,12 @@ public final class Constant {
 
     public static final List<String> supportedFileExtensions = List.of("csv", "ods", "xls", "xlsx", "xlsb");
 
-    public static final List<String> supportedArchiveExtensions = List.of("zip", "rar", "7z");
+    public static final List<String> supportedArchiveExtensions = List.of("zip", "tar", "gz", "tgz", "rar", "7z");
     public static final String ZIP = ".zip";
+    public static final String TAR = ".tar";
+    public static final String GZIP = ".gz";
+    public static final String TAR_GZIP = ".tar.gz";
+    public static final String TGZ = ".tgz";
     public static final String RAR = ".rar";
     public static final String SEVEN_Z = ".7z";
 
@@ -85,6 +102,8 @@ public final class Constant {
 
     public static final String CONTENT_TYPE_ARCHIVE = "archive";
     public static final String TEMP_ARCHIVE_NAME = "temp-archive-";
+    public static final String TEMP_IMPORT_JOB_NAME = "import-job-";
+    public static final String CHECKPOINT_DIRECTORY = "tabledataloader-checkpoints";
 
     public static final String FILE_NAME_FILTER = "fileName";
     public static final String DATE_FILTER = "date";
@@ -0,0 +1,15 @@
+package su.erik.tabledataloader.config;
+
+/**
+ * Способ получения общего количества записей (X-Pagination-Total-Entries) в TableDataLoader.
+ */
+public enum EnumCountMode {
+    /** countFetcher на каждый запрос (по умолчанию). */
+    EXACT,
+    /** Оценка из useToEstimateCount (например, по статистике таблицы); без оценщика — как EXACT. */
+    ESTIMATED,
+    /** Без подсчёта: выбирается limit+1 строк, ответ содержит X-Pagination-Has-More. */
+    HAS_MORE,
+    /** countFetcher с кэшированием результата на Constant.COUNT_CACHE_TTL_MS по региону и ключу запроса (cacheCount). */
+    CACHED
+}
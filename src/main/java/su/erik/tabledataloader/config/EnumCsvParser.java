@@ -0,0 +1,11 @@
+package su.erik.tabledataloader.config;
+
+/**
+ * Движок разбора CSV в CsvFileLoader.
+ */
+public enum EnumCsvParser {
+    /** opencsv CSVReader (по умолчанию). */
+    OPENCSV,
+    /** Встроенный CsvTokenizer: переиспользуемые буферы, без экранирования обратным слэшем. Нужен для parseParallelism и точек возобновления. */
+    BUILTIN
+}
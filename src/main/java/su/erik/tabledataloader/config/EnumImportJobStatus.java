@@ -0,0 +1,14 @@
+package su.erik.tabledataloader.config;
+
+/**
+ * Состояние асинхронного импорта (ImportJob).
+ */
+public enum EnumImportJobStatus {
+    /** Задача поставлена в очередь executor'а. */
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    /** Импорт остановлен по запросу, загруженные данные удалены через ImportMapper.delete. */
+    CANCELLED
+}
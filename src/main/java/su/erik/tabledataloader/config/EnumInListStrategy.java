@@ -0,0 +1,15 @@
+package su.erik.tabledataloader.config;
+
+/**
+ * Способ передачи списка IN длиннее Constant.MAX_IN_LIST_SIZE в SQL (MapParam.compile, Common.masterList).
+ * Короткие списки всегда передаются одним IN, дополненным до степени двойки.
+ */
+public enum EnumInListStrategy {
+    /**
+     * OR из IN по Constant.MAX_IN_LIST_SIZE значений (по умолчанию, любая СУБД). Число порций дополняется
+     * до степени двойки повтором последнего значения, поэтому число форм SQL растёт логарифмически от длины списка.
+     */
+    CHUNKED,
+    /** Один параметр-массив: field = ANY(?) (PostgreSQL, H2). */
+    ARRAY
+}
@@ -1,6 +1,9 @@
 package su.erik.tabledataloader.config;
 
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public enum StandardParam {
 
@@ -8,6 +11,8 @@ public enum StandardParam {
     PER_PAGE("limit", "X-Pagination-Per-Page", Constant.DEFAULT_PER_PAGE),
     CURRENT_PAGE("page", "X-Pagination-Current-Page", Constant.DEFAULT_PAGE),
     IS_CUSTOM_PAGINATION("customPagination", "X-Pagination-Custom", false),
+    KEYSET_PAGINATION("keysetPagination", "X-Pagination-Keyset", false),
+    CURSOR("cursor", "X-Pagination-Cursor", null),
 
     // --- Sorting ---
     SORT_FIELD("sortField", "X-Sort-Field", "id"),
@@ -20,13 +25,30 @@ public enum StandardParam {
 
     // --- Internal (Import/System) ---
     HEADER_ROW_NUMBER("headerRowNumber", null, 0),
+    BATCH_SIZE("batchSize", null, Constant.DEFAULT_BATCH_SIZE),
+    ARCHIVE_PARALLELISM("archiveParallelism", null, 1),
+    CSV_PARSER("csvParser", null, EnumCsvParser.OPENCSV),
+    CHARSET("charset", null, null),
+    PARSE_PARALLELISM("parseParallelism", null, 1),
+    IMPORT_PIPELINE("importPipeline", null, null),
+    IMPORT_LISTENER("importListener", null, null),
+    CHECKPOINT_STORE("checkpointStore", null, null),
+    RESUME_UPLOAD_ID("resumeUploadId", null, null),
     COLUMN_MAPPER("columnMapper", null, null),
+    LOADER_REGISTRY("loaderRegistry", null, null),
+    IN_LIST_STRATEGY("inListStrategy", null, EnumInListStrategy.CHUNKED),
+    MASTER_LIST_BINDING("masterListBinding", null, false),
     FILE("file", null, null),
     ENTITY("entity", null, null),
     USER_ID("userId", null, null),
     USER_ROLES("userRoles", null, null);
 
 
+    private static final Set<String> INTERNAL_KEYS = Arrays.stream(values())
+            .filter(StandardParam::isInternal)
+            .map(StandardParam::getKey)
+            .collect(Collectors.toUnmodifiableSet());
+
     private final String key;          // Ключ в MapParam.filters
     private final String headerName;   // Имя HTTP заголовка
     private final Object defaultValue; // Значение по умолчанию
@@ -49,6 +71,18 @@ public enum StandardParam {
         return defaultValue;
     }
 
+    /**
+     * Служебный параметр (импорт, контекст, файл): не задаётся клиентом через заголовки и не влияет на выборку.
+     * Пользователь и его роли служебными не считаются — от них может зависеть видимость строк.
+     */
+    public boolean isInternal() {
+        return headerName == null && this != USER_ID && this != USER_ROLES;
+    }
+
+    public static boolean isInternalKey(String key) {
+        return INTERNAL_KEYS.contains(key);
+    }
+
     /**
      * Извлекает значение из Map (filters) или возвращает default.
      * <p>
@@ -85,7 +119,7 @@ public enum StandardParam {
         }
 
         // Логика для Boolean
-        if (this == IS_CUSTOM_PAGINATION) {
+        if (this == IS_CUSTOM_PAGINATION || this == KEYSET_PAGINATION) {
             return Boolean.parseBoolean(headerValue);
         }
 
@@ -1,6 +1,15 @@
 package su.erik.tabledataloader.context;
 
 import su.erik.tabledataloader.LoaderRegistry;
+import su.erik.tabledataloader.cache.CountCache;
+import su.erik.tabledataloader.cache.ResultCache;
+import su.erik.tabledataloader.cache.SingleFlight;
+import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.importer.ImportListener;
+import su.erik.tabledataloader.importer.checkpoint.CheckpointStore;
+import su.erik.tabledataloader.importer.checkpoint.FileCheckpointStore;
+import su.erik.tabledataloader.importer.job.ImportJobRegistry;
+import su.erik.tabledataloader.importer.pipeline.ImportPipelineConfig;
 import su.erik.tabledataloader.spi.MapParamProvider;
 
 import java.util.ServiceLoader;
@@ -15,6 +24,13 @@ public class DataLoaderContext {
 
     private final LoaderRegistry loaderRegistry;
     private final MapParamProvider mapParamProvider;
+    private volatile ImportPipelineConfig importPipelineConfig;
+    private volatile ImportListener importListener;
+    private volatile ImportJobRegistry importJobRegistry = new ImportJobRegistry();
+    private volatile CheckpointStore checkpointStore = FileCheckpointStore.inTempDirectory();
+    private volatile CountCache countCache = new CountCache(Constant.COUNT_CACHE_TTL_MS, Constant.COUNT_CACHE_MAX_SIZE);
+    private volatile ResultCache resultCache = new ResultCache(Constant.RESULT_CACHE_TTL_MS, Constant.RESULT_CACHE_MAX_SIZE);
+    private final SingleFlight singleFlight = new SingleFlight();
 
     /**
      * Конструктор по умолчанию, загружающий компоненты через SPI.
@@ -45,4 +61,83 @@ public class DataLoaderContext {
     public MapParamProvider getMapParamProvider() {
         return mapParamProvider;
     }
+
+    /**
+     * Настройки конвейерного импорта для всех загрузок контекста; null — импорт без конвейера.
+     * Отдельный вызов может переопределить их через TableDataLoader.setImportPipeline.
+     */
+    public ImportPipelineConfig getImportPipelineConfig() {
+        return importPipelineConfig;
+    }
+
+    public void setImportPipelineConfig(ImportPipelineConfig importPipelineConfig) {
+        this.importPipelineConfig = importPipelineConfig;
+    }
+
+    /**
+     * Наблюдатель за ходом всех импортов контекста; null — без отчётов (сводка в ResultDTO есть всегда).
+     */
+    public ImportListener getImportListener() {
+        return importListener;
+    }
+
+    public void setImportListener(ImportListener importListener) {
+        this.importListener = importListener;
+    }
+
+    /**
+     * Реестр асинхронных импортов (TableDataLoader.buildAsync): состояние, отмена и итог по id задачи.
+     */
+    public ImportJobRegistry getImportJobRegistry() {
+        return importJobRegistry;
+    }
+
+    /**
+     * Замена реестра, например с собственным executor'ом. Задачи старого реестра в новый не переносятся.
+     */
+    public void setImportJobRegistry(ImportJobRegistry importJobRegistry) {
+        this.importJobRegistry = importJobRegistry;
+    }
+
+    /**
+     * Хранилище точек возобновления для TableDataLoader.enableCheckpoints / resumeUpload.
+     * По умолчанию — файлы во временном каталоге.
+     */
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * Кэш COUNT для загрузчиков в режиме EnumCountMode.CACHED.
+     */
+    public CountCache getCountCache() {
+        return countCache;
+    }
+
+    public void setCountCache(CountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    /**
+     * Кэш результатов build() для загрузчиков с cacheResult(region).
+     * После изменения данных регион сбрасывается через getResultCache().invalidate(region).
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Выполняющиеся сейчас выборки загрузчиков с singleFlight(region): одинаковые одновременные build() ждут одну.
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
 }
@@ -0,0 +1,21 @@
+package su.erik.tabledataloader.dto;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Потоковый вариант DataResponse: элементы отдаются лениво по мере чтения источника.
+ *
+ * @param items         Стрим элементов. Должен быть закрыт (закрывает курсор источника).
+ * @param total         Общее количество из countFetcher или null, если стратегия подсчёта не задана.
+ * @param streamedCount Количество уже отданных элементов (после дочитывания стрима — итоговое).
+ */
+public record DataStreamResponse<T>(Stream<T> items, Long total, Map<String, String> headers, LoaderHttpStatus status,
+                                    LongSupplier streamedCount) implements AutoCloseable {
+
+    @Override
+    public void close() {
+        items.close();
+    }
+}
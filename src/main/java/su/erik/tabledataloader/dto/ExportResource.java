@@ -5,6 +5,9 @@ import java.io.InputStream;
 /**
  * Ресурс для экспорта.
  * Реализует AutoCloseable для гарантированного закрытия потока.
+ * <p>
+ * При потоковом экспорте размер заранее неизвестен ({@link #UNKNOWN_SIZE}),
+ * а {@code stream().transferTo(out)} пишет строки напрямую в out без промежуточного буфера.
  */
 public record ExportResource(
         String fileName,
@@ -13,11 +16,17 @@ public record ExportResource(
         long size,
         LoaderHttpStatus status
 ) implements AutoCloseable {
-    
+
+    public static final long UNKNOWN_SIZE = -1;
+
     public ExportResource(String fileName, String contentType, InputStream stream, long size) {
         this(fileName, contentType, stream, size, LoaderHttpStatus.OK);
     }
 
+    public boolean isSizeKnown() {
+        return size >= 0;
+    }
+
     @Override
     public void close() throws Exception {
         if (stream != null) {
@@ -2,6 +2,7 @@ package su.erik.tabledataloader.dto;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * Абстракция входящего файла.
@@ -23,4 +24,12 @@ public interface InputFile {
      * Возвращает размер файла в байтах.
      */
     long getSize();
+
+    /**
+     * Возвращает путь к файлу, если он лежит на локальном диске (например, временный файл после загрузки multipart).
+     * Позволяет загрузчикам читать файл с произвольным доступом. По умолчанию null — доступен только поток.
+     */
+    default Path getLocalPath() {
+        return null;
+    }
 }
@@ -2,6 +2,7 @@ package su.erik.tabledataloader.exporter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Результат экспорта.
@@ -13,12 +14,21 @@ public interface ExportedFile extends AutoCloseable {
     InputStream getInputStream() throws IOException;
 
     /**
-     * Возвращает размер файла в байтах (если известен), иначе -1.
+     * Возвращает размер файла в байтах (если известен), иначе {@link su.erik.tabledataloader.dto.ExportResource#UNKNOWN_SIZE}.
      */
     long contentLength() throws IOException;
 
+    /**
+     * Записывает содержимое файла в переданный поток (поток не закрывается).
+     */
+    default void writeTo(OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = getInputStream()) {
+            inputStream.transferTo(outputStream);
+        }
+    }
+
     @Override
     default void close() throws Exception {
         // По умолчанию ничего не делаем
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,15 @@ public interface FileExporter {
      */
     ExportedFile export() throws IOException;
 
+    /**
+     * Потоковый экспорт: строки пишутся в выходной поток по мере чтения данных,
+     * файл целиком в памяти не собирается. Размер результата неизвестен (-1).
+     * По умолчанию сводится к обычному export().
+     */
+    default ExportedFile exportStreaming() throws IOException {
+        return export();
+    }
+
     /**
      * Формирует полное имя файла (например, добавляет расширение .xlsx).
      */
@@ -0,0 +1,212 @@
+package su.erik.tabledataloader.exporter;
+
+import su.erik.tabledataloader.dto.ExportResource;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Потоковый результат экспорта: содержимое не собирается в памяти, а генерируется writer'ом по мере чтения.
+ * <p>
+ * {@code getInputStream().transferTo(out)} (и {@link #writeTo}) пишет строки напрямую в out, например в поток сервлета.
+ * При чтении через read() writer запускается в виртуальном потоке и передаёт данные через ограниченный канал
+ * из нескольких блоков, поэтому объём памяти не зависит от размера выгрузки.
+ * <p>
+ * Источник данных должен оставаться открытым, пока поток не будет дочитан.
+ */
+public class StreamingExportedFile implements ExportedFile {
+
+    /**
+     * Генератор содержимого. Не должен закрывать переданный поток.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int PIPE_CAPACITY = 4;
+
+    private final ContentWriter contentWriter;
+
+    public StreamingExportedFile(ContentWriter contentWriter) {
+        this.contentWriter = contentWriter;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new PipeInputStream(contentWriter);
+    }
+
+    @Override
+    public long contentLength() {
+        return ExportResource.UNKNOWN_SIZE;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        contentWriter.write(outputStream);
+    }
+
+    /**
+     * Поток чтения, который запускает writer лениво: напрямую при transferTo, через канал при read().
+     */
+    private static class PipeInputStream extends InputStream {
+
+        private static final byte[] END_OF_STREAM = new byte[0];
+
+        private final ContentWriter contentWriter;
+        private final BlockingQueue<byte[]> pipe = new ArrayBlockingQueue<>(PIPE_CAPACITY);
+        private volatile boolean closed = false;
+        private volatile Throwable failure;
+        private final byte[] single = new byte[1];
+        private boolean started = false;
+        private byte[] chunk;
+        private int position;
+
+        PipeInputStream(ContentWriter contentWriter) {
+            this.contentWriter = contentWriter;
+        }
+
+        @Override
+        public long transferTo(OutputStream outputStream) throws IOException {
+            if (started || closed) {
+                return super.transferTo(outputStream);
+            }
+            started = true;
+            CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+            contentWriter.write(countingStream);
+            chunk = END_OF_STREAM;
+            return countingStream.count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = read(single, 0, 1);
+            return (read == -1) ? -1 : (single[0] & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (closed) throw new IOException("Stream closed");
+            if (length == 0) return 0;
+            if (!nextChunk()) return -1;
+            int count = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (!started) {
+                started = true;
+                Thread.ofVirtual().name("export-writer").start(this::produce);
+            }
+            while (chunk == null || (chunk != END_OF_STREAM && position >= chunk.length)) {
+                try {
+                    chunk = pipe.take();
+                    position = 0;
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for export data");
+                }
+            }
+            if (chunk == END_OF_STREAM) {
+                if (failure != null) throw new IOException("Error while writing export data", failure);
+                return false;
+            }
+            return true;
+        }
+
+        private void produce() {
+            try (ChunkOutputStream outputStream = new ChunkOutputStream()) {
+                contentWriter.write(outputStream);
+            } catch (Throwable throwable) {
+                failure = throwable;
+            } finally {
+                offer(END_OF_STREAM);
+            }
+        }
+
+        private void offer(byte[] data) {
+            try {
+                while (!closed) {
+                    if (pipe.offer(data, 100, TimeUnit.MILLISECONDS)) return;
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            pipe.clear();
+        }
+
+        /**
+         * Сторона writer'а: копит данные в блоки фиксированного размера и отдаёт их в канал.
+         */
+        private class ChunkOutputStream extends OutputStream {
+            private byte[] buffer = new byte[CHUNK_SIZE];
+            private int size = 0;
+
+            @Override
+            public void write(int value) throws IOException {
+                if (size == buffer.length) flushChunk();
+                buffer[size++] = (byte) value;
+            }
+
+            @Override
+            public void write(byte[] data, int offset, int length) throws IOException {
+                while (length > 0) {
+                    if (size == buffer.length) flushChunk();
+                    int count = Math.min(length, buffer.length - size);
+                    System.arraycopy(data, offset, buffer, size, count);
+                    size += count;
+                    offset += count;
+                    length -= count;
+                }
+            }
+
+            private void flushChunk() throws IOException {
+                if (closed) throw new IOException("Export stream closed by consumer");
+                if (size == 0) return;
+                byte[] data = (size == buffer.length) ? buffer : Arrays.copyOf(buffer, size);
+                offer(data);
+                buffer = new byte[CHUNK_SIZE];
+                size = 0;
+            }
+
+            @Override
+            public void close() throws IOException {
+                flushChunk();
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count = 0;
+
+        CountingOutputStream(OutputStream outputStream) { super(outputStream); }
+
+        @Override
+        public void write(int value) throws IOException {
+            out.write(value);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            out.write(data, offset, length);
+            count += length;
+        }
+    }
+}
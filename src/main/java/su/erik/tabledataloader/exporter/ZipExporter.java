@@ -2,51 +2,106 @@ package su.erik.tabledataloader.exporter;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+/**
+ * Экспортер-обёртка, упаковывающий результат делегата в ZIP.
+ * Строки делегата пишутся прямо в ZipOutputStream и сжимаются на лету, несжатый файл в памяти не собирается.
+ */
 public class ZipExporter implements FileExporter {
 
     private final FileExporter delegate;
     private final String fileNameInsideArchive;
+    private final int compressionLevel;
 
     public ZipExporter(FileExporter delegate, String fileNameInsideArchive) {
+        this(delegate, fileNameInsideArchive, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compressionLevel уровень сжатия 0-9 (Deflater.BEST_SPEED ... Deflater.BEST_COMPRESSION)
+     *                         или Deflater.DEFAULT_COMPRESSION.
+     */
+    public ZipExporter(FileExporter delegate, String fileNameInsideArchive, int compressionLevel) {
+        if ((compressionLevel < 0 || compressionLevel > 9) && compressionLevel != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
         this.delegate = delegate;
         this.fileNameInsideArchive = fileNameInsideArchive;
+        this.compressionLevel = compressionLevel;
     }
 
     @Override
     public ExportedFile export() {
-        try (ExportedFile innerFile = delegate.export()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-
-                String entryName = delegate.getFullFileName(fileNameInsideArchive);
-                ZipEntry entry = new ZipEntry(entryName);
-                zos.putNextEntry(entry);
-
-                try (InputStream is = innerFile.getInputStream()) {
-                    is.transferTo(zos);
-                }
-                zos.closeEntry();
-            }
-
-            byte[] zippedBytes = baos.toByteArray();
-            return new ExportedFile() {
-                @Override
-                public InputStream getInputStream() {
-                    return new ByteArrayInputStream(zippedBytes);
-                }
-
-                @Override
-                public long contentLength() {
-                    return zippedBytes.length;
-                }
-            };
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            writeTo(baos);
         } catch (Exception e) {
             throw new RuntimeException("Error while archiving export result", e);
         }
+
+        byte[] zippedBytes = baos.toByteArray();
+        return new ExportedFile() {
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(zippedBytes);
+            }
+
+            @Override
+            public long contentLength() {
+                return zippedBytes.length;
+            }
+        };
+    }
+
+    @Override
+    public ExportedFile exportStreaming() {
+        return new StreamingExportedFile(this::writeTo);
+    }
+
+    private void writeTo(OutputStream outputStream) throws IOException {
+        // close(), а не finish(): освобождает Deflater сразу, а не при сборке мусора;
+        // внешний поток принадлежит вызывающему и не закрывается
+        try (ZipOutputStream zos = new ZipOutputStream(new NonClosingOutputStream(outputStream))) {
+            zos.setLevel(compressionLevel);
+            zos.putNextEntry(new ZipEntry(delegate.getFullFileName(fileNameInsideArchive)));
+
+            try (ExportedFile innerFile = delegate.exportStreaming()) {
+                innerFile.writeTo(zos);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Error while archiving export result", e);
+            }
+
+            zos.closeEntry();
+        }
+    }
+
+    /**
+     * Поток-обёртка, у которого close() только сбрасывает буфер.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
     }
 
     @Override
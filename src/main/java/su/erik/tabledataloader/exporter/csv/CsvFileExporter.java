@@ -2,15 +2,21 @@ package su.erik.tabledataloader.exporter.csv;
 
 import su.erik.tabledataloader.exporter.AbstractFileExporter;
 import su.erik.tabledataloader.exporter.ExportedFile;
+import su.erik.tabledataloader.exporter.StreamingExportedFile;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * Экспортер данных в формат CSV.
@@ -30,7 +36,37 @@ public class CsvFileExporter<T> extends AbstractFileExporter<T> {
 
     @Override
     public ExportedFile export() {
-        StringBuilder csvContent = new StringBuilder();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            writeTo(buffer);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        byte[] bytes = buffer.toByteArray();
+
+        return new ExportedFile() {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new ByteArrayInputStream(bytes);
+            }
+
+            @Override
+            public long contentLength() throws IOException {
+                return bytes.length;
+            }
+        };
+    }
+
+    @Override
+    public ExportedFile exportStreaming() {
+        return new StreamingExportedFile(this::writeTo);
+    }
+
+    /**
+     * Пишет CSV построчно в поток по мере чтения данных. Поток не закрывается.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
         Iterator<T> iterator = data.iterator();
 
         if (iterator.hasNext()) {
@@ -39,41 +75,30 @@ public class CsvFileExporter<T> extends AbstractFileExporter<T> {
 
             // 1. Определяем заголовки
             List<String> headers = resolveHeaders(firstItem);
-            
+
             // 2. Пишем заголовки
-            csvContent.append(String.join(SEPARATOR, headers)).append(NEW_LINE);
+            writer.write(String.join(SEPARATOR, headers));
+            writer.write(NEW_LINE);
 
             // 3. Пишем данные первого элемента
-            writeRow(csvContent, extractRowValues(firstItem, headers));
+            writeRow(writer, extractRowValues(firstItem, headers));
 
             // 4. Пишем остальные данные
             while (iterator.hasNext()) {
                 T item = iterator.next();
                 processItem(item);
-                writeRow(csvContent, extractRowValues(item, headers));
+                writeRow(writer, extractRowValues(item, headers));
             }
         }
-
-        byte[] bytes = csvContent.toString().getBytes(StandardCharsets.UTF_8);
-
-        return new ExportedFile() {
-            @Override
-            public InputStream getInputStream() throws IOException {
-                return new ByteArrayInputStream(bytes);
-            }
-
-            @Override
-            public long contentLength() throws IOException {
-                return bytes.length;
-            }
-        };
+        writer.flush();
     }
 
-    private void writeRow(StringBuilder builder, List<Object> values) {
-        String rowString = values.stream()
-                .map(this::formatValue)
-                .collect(Collectors.joining(SEPARATOR));
-        builder.append(rowString).append(NEW_LINE);
+    private void writeRow(Writer writer, List<Object> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(SEPARATOR);
+            writer.write(formatValue(values.get(i)));
+        }
+        writer.write(NEW_LINE);
     }
 
     private String formatValue(Object value) {
@@ -90,4 +115,4 @@ public class CsvFileExporter<T> extends AbstractFileExporter<T> {
     public String getFullFileName(String fileName) {
         return fileName + ".csv";
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,12 @@
 package su.erik.tabledataloader.importer;
 
+import su.erik.tabledataloader.config.StandardParam;
 import su.erik.tabledataloader.importer.loader.FileLoader;
 import su.erik.tabledataloader.importer.model.ResultDTO;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public abstract class AbstractFileLoader<T> implements FileLoader {
@@ -22,19 +25,65 @@ public abstract class AbstractFileLoader<T> implements FileLoader {
 
     @Override
     public ResultDTO importFile(InputStream inputStream, String name, long size, String entity, Long userId) {
-        Iterable<T> iterator = iteratorBuilder(inputStream);
-        return importRecords(iterator, customFilters);
+        ImportProgress progress = ImportProgress.start(name, customFilters);
+        Iterable<T> iterator = iteratorBuilder(progress.track(inputStream));
+        return importRecords(iterator, customFilters, progress);
     }
 
     protected ResultDTO importRecords(Iterable<T> iterator, Map<String, Object> customFilters) {
+        return importRecords(iterator, customFilters, new ImportProgress(null, null));
+    }
+
+    /**
+     * Пакетная вставка записей итератора. Время итератора (чтение, разбор и создание DTO) учитывается как parseNanos.
+     */
+    protected ResultDTO importRecords(Iterable<T> iterator, Map<String, Object> customFilters, ImportProgress progress) {
+        int batchSize = getBatchSize();
+        List<T> batch = new ArrayList<>(batchSize);
         long count = 0;
+        long parseStart = System.nanoTime();
         for (T importDTO : iterator) {
             if (importDTO == null) continue;
-            customFilters.put("importDTO", importDTO);
-            importMapper.insert(customFilters);
+            batch.add(importDTO);
             count++;
+            if (batch.size() >= batchSize) {
+                progress.parsed(batch.size(), System.nanoTime() - parseStart, 0);
+                flushBatch(batch, customFilters, progress);
+                parseStart = System.nanoTime();
+            }
         }
+        progress.parsed(batch.size(), System.nanoTime() - parseStart, 0);
+        flushBatch(batch, customFilters, progress);
         importMapper.finish(customFilters);
-        return new ResultDTO(0L, count);
+        return new ResultDTO(0L, count, progress.complete());
+    }
+
+    /**
+     * Размер пакета вставки (customFilters["batchSize"], по умолчанию Constant.DEFAULT_BATCH_SIZE).
+     */
+    protected int getBatchSize() {
+        Integer batchSize = StandardParam.BATCH_SIZE.getFrom(customFilters);
+        return (batchSize != null && batchSize > 0) ? batchSize : 1;
+    }
+
+    /**
+     * Отправляет накопленный пакет в маппер и сбрасывает его (flush) на границе пакета.
+     */
+    protected void flushBatch(List<T> batch, Map<String, Object> customFilters) {
+        if (batch.isEmpty()) return;
+        importMapper.insertBatch(batch, customFilters);
+        importMapper.flush();
+        batch.clear();
+    }
+
+    /**
+     * То же, с учётом времени вставки и отчётом о ходе импорта.
+     */
+    protected void flushBatch(List<T> batch, Map<String, Object> customFilters, ImportProgress progress) {
+        if (batch.isEmpty()) return;
+        int rows = batch.size();
+        long start = System.nanoTime();
+        flushBatch(batch, customFilters);
+        progress.inserted(rows, System.nanoTime() - start);
     }
 }
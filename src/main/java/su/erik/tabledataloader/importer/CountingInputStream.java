@@ -0,0 +1,48 @@
+package su.erik.tabledataloader.importer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Поток, считающий прочитанные байты. Счётчик можно читать из другого потока.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    private volatile long count = 0;
+
+    public CountingInputStream(InputStream inputStream) {
+        super(inputStream);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = in.read();
+        if (value != -1) count++;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = in.read(buffer, offset, length);
+        if (read > 0) count += read;
+        return read;
+    }
+
+    @Override
+    public long skip(long length) throws IOException {
+        long skipped = in.skip(length);
+        count += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        // mark/reset исказили бы счётчик
+        return false;
+    }
+}
@@ -5,41 +5,72 @@ import com.puls.centralpricing.common.exception.StandardFault;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.config.StandardParam;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
 
 public class EncodingDetector {
 
     private static final Logger log = LoggerFactory.getLogger(EncodingDetector.class);
     private static final int BOM_SIZE = 4096; // Читаем 4KB для анализа
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long HIGH_BITS = 0x8080808080808080L;
 
     public static Charset detectCharset(InputStream inputStream) throws IOException {
         if (!inputStream.markSupported()) {
             throw new IOException("InputStream must support mark/reset for encoding detection");
         }
 
-        inputStream.mark(BOM_SIZE);
-        byte[] buffer = new byte[BOM_SIZE];
-        int read = inputStream.read(buffer);
-        inputStream.reset();
+        ByteBuffer sample = PooledDecodingReader.acquireBuffer();
+        try {
+            inputStream.mark(BOM_SIZE);
+            int read = readSample(inputStream, sample.array());
+            inputStream.reset();
+            return detectCharset(sample.array(), read);
+        } finally {
+            PooledDecodingReader.releaseBuffer(sample);
+        }
+    }
 
-        if (read == -1) {
+    /**
+     * Кодировка по первым length байтам файла (не больше 4KB).
+     * <p>
+     * Быстрый путь без CharsetToolkit: BOM, затем проверка на ASCII словами по 8 байт (SWAR) и строгая проверка UTF-8.
+     * Выборка только из ASCII при файле длиннее неё ничего не говорит о кодировке остатка — как и CharsetToolkit,
+     * возвращаем CP1251 по умолчанию. Остальное (однобайтовые кодировки) определяет CharsetToolkit.
+     */
+    public static Charset detectCharset(byte[] data, int length) {
+        if (length <= 0) {
             return StandardCharsets.UTF_8; // Пустой файл
         }
-
-        // Обрезаем буфер до реально прочитанного размера, если файл меньше 4KB
-        byte[] actualBytes = buffer;
-        if (read < BOM_SIZE) {
-            actualBytes = new byte[read];
-            System.arraycopy(buffer, 0, actualBytes, 0, read);
+        if (length >= 3 && (data[0] & 0xFF) == 0xEF && (data[1] & 0xFF) == 0xBB && (data[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        if (length >= 2 && (((data[0] & 0xFF) == 0xFE && (data[1] & 0xFF) == 0xFF) || ((data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xFE))) {
+            // Декодер UTF-16 сам определяет порядок байт по BOM
+            return StandardCharsets.UTF_16;
+        }
+        // Выборка могла оборвать последний многобайтовый символ, если файл длиннее неё
+        boolean complete = length < BOM_SIZE;
+        if (isUtf8(data, length, complete)) {
+            if (!complete && isAscii(data, length)) {
+                log.debug("Encoding sample is ASCII only, using default: {}", Constant.WINDOWS_1251_CHARSET);
+                return Constant.WINDOWS_1251_CHARSET;
+            }
+            return StandardCharsets.UTF_8;
         }
 
-        CharsetToolkit toolkit = new CharsetToolkit(actualBytes);
+        CharsetToolkit toolkit = new CharsetToolkit(Arrays.copyOf(data, length));
         toolkit.setDefaultCharset(Constant.WINDOWS_1251_CHARSET); // Используем CP1251 как дефолт для России
 
         // guessEncoding() может быть дорогим, но мы ограничили его 4KB
@@ -48,20 +79,96 @@ public class EncodingDetector {
         return charset;
     }
 
-    public static InputStreamReader getReader(InputStream inputStream) {
-        try {
-            // Оборачиваем в BufferedInputStream для поддержки mark/reset
-            BufferedInputStream bufferedInputStream;
-            if (inputStream instanceof BufferedInputStream) {
-                bufferedInputStream = (BufferedInputStream) inputStream;
-            } else {
-                bufferedInputStream = new BufferedInputStream(inputStream);
-            }
+    public static Reader getReader(InputStream inputStream) {
+        return getReader(inputStream, null);
+    }
 
-            Charset charset = detectCharset(bufferedInputStream);
-            return new InputStreamReader(bufferedInputStream, charset);
+    /**
+     * Декодирующий Reader. При заданной кодировке (charsetHint) определение пропускается.
+     * Начало потока читается сразу в буфер декодера, поэтому mark/reset и BufferedInputStream не нужны.
+     */
+    public static Reader getReader(InputStream inputStream, Charset charsetHint) {
+        if (charsetHint != null) {
+            return new PooledDecodingReader(inputStream, charsetHint, null);
+        }
+        ByteBuffer buffer = PooledDecodingReader.acquireBuffer();
+        try {
+            int read = readSample(inputStream, buffer.array());
+            buffer.position(read).flip();
+            return new PooledDecodingReader(inputStream, detectCharset(buffer.array(), read), buffer);
         } catch (IOException e) {
+            PooledDecodingReader.releaseBuffer(buffer);
             throw new StandardFault(e);
         }
     }
+
+    /**
+     * Кодировка импорта из customFilters["charset"] (Charset или имя) или null.
+     */
+    public static Charset getCharsetHint(Map<String, Object> customFilters) {
+        Object value = StandardParam.CHARSET.getFrom(customFilters);
+        if (value instanceof Charset charset) return charset;
+        if (value instanceof String name && !name.isBlank()) return Charset.forName(name.trim());
+        return null;
+    }
+
+    private static int readSample(InputStream inputStream, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < BOM_SIZE) {
+            int read = inputStream.read(buffer, total, BOM_SIZE - total);
+            if (read < 0) break;
+            total += read;
+        }
+        return total;
+    }
+
+    static boolean isAscii(byte[] data, int length) {
+        int i = 0;
+        while (i + Long.BYTES <= length) {
+            if (((long) LONGS.get(data, i) & HIGH_BITS) != 0) return false;
+            i += Long.BYTES;
+        }
+        while (i < length) {
+            if (data[i++] < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Строгая проверка UTF-8 (без overlong-форм и суррогатов). ASCII-участки пропускаются по 8 байт за шаг.
+     *
+     * @param complete false — данные обрезаны, незаконченная последовательность в конце допустима.
+     */
+    static boolean isUtf8(byte[] data, int length, boolean complete) {
+        int i = 0;
+        while (i < length) {
+            while (i + Long.BYTES <= length && ((long) LONGS.get(data, i) & HIGH_BITS) == 0) {
+                i += Long.BYTES;
+            }
+            while (i < length && data[i] >= 0) i++;
+            if (i == length) return true;
+
+            int lead = data[i] & 0xFF;
+            int size;
+            if (lead >= 0xC2 && lead <= 0xDF) size = 2;
+            else if (lead >= 0xE0 && lead <= 0xEF) size = 3;
+            else if (lead >= 0xF0 && lead <= 0xF4) size = 4;
+            else return false;
+
+            int available = Math.min(size, length - i);
+            if (available > 1) {
+                int second = data[i + 1] & 0xFF;
+                if ((lead == 0xE0 && second < 0xA0) || (lead == 0xED && second > 0x9F)
+                        || (lead == 0xF0 && second < 0x90) || (lead == 0xF4 && second > 0x8F)) {
+                    return false;
+                }
+            }
+            for (int k = 1; k < available; k++) {
+                if ((data[i + k] & 0xC0) != 0x80) return false;
+            }
+            if (available < size) return !complete;
+            i += size;
+        }
+        return true;
+    }
 }
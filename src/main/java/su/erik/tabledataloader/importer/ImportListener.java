@@ -0,0 +1,25 @@
+package su.erik.tabledataloader.importer;
+
+import su.erik.tabledataloader.importer.model.ImportStats;
+
+/**
+ * Наблюдатель за ходом импорта (метрики, журнал, индикатор прогресса).
+ * Регистрируется в DataLoaderContext.setImportListener.
+ * <p>
+ * Вызывается из потока, пишущего в БД; при параллельном импорте архива — из нескольких потоков одновременно.
+ * Реализация не должна надолго блокировать: это задерживает импорт.
+ */
+public interface ImportListener {
+
+    /**
+     * Промежуточный отчёт по файлу, не чаще раза в Constant.IMPORT_PROGRESS_INTERVAL_MS.
+     */
+    default void onProgress(String fileName, ImportStats progress) {
+    }
+
+    /**
+     * Файл импортирован. Для архива вызывается для каждого файла и затем для архива со сводкой по всем файлам.
+     */
+    default void onComplete(String fileName, ImportStats stats) {
+    }
+}
@@ -9,6 +9,37 @@ public interface ImportMapper<T> {
     void insertHeader(UploadDTO uploadDTO);
     void createTempTable(List<String> headers, String tempTableName);
     void insert(Map<String, Object> customFilters);
+
+    /**
+     * Пакетная вставка записей.
+     * По умолчанию вызывает insert для каждой записи, подкладывая её в customFilters под ключом "importDTO".
+     * Мапперы с поддержкой multi-row INSERT переопределяют метод, чтобы отправить пакет за один запрос.
+     * Список переиспользуется загрузчиком после возврата из метода, сохранять ссылку на него нельзя.
+     */
+    default void insertBatch(List<T> batch, Map<String, Object> customFilters) {
+        for (T importDTO : batch) {
+            customFilters.put("importDTO", importDTO);
+            insert(customFilters);
+        }
+    }
+
+    /**
+     * true — маппер фиксирует в БД каждый пакет в {@link #commitBatch}. Без этого импорт с точками
+     * возобновления (checkpointStore) отклоняется: при обычной единой транзакции сбой откатывает все пакеты,
+     * и точка указывала бы на строки, которых в БД нет.
+     */
+    default boolean isBatchCommitSupported() {
+        return false;
+    }
+
+    /**
+     * Фиксирует в БД пакеты, переданные в insertBatch (например, commit транзакции или SqlSession).
+     * Импорт с точками возобновления вызывает метод после каждого пакета и сохраняет точку только после возврата из него.
+     */
+    default void commitBatch(Map<String, Object> customFilters) {
+        throw new UnsupportedOperationException("ImportMapper does not commit batches");
+    }
+
     void delete(long uploadId);
     void finish(Map<String, Object> customFilters);
     void flush();
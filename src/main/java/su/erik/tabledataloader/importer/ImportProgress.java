@@ -0,0 +1,128 @@
+package su.erik.tabledataloader.importer;
+
+import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.importer.model.ImportStats;
+import su.erik.tabledataloader.importer.pipeline.StageReader;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики импорта одного файла и отчёты для {@link ImportListener}.
+ * <p>
+ * Счётчики пополняются пакетами (а не по строке), поэтому разбор и запись могут идти в разных потоках.
+ * Отчёты onProgress отправляет поток записи после очередного пакета, не чаще Constant.IMPORT_PROGRESS_INTERVAL_MS.
+ */
+public class ImportProgress {
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(Constant.IMPORT_PROGRESS_INTERVAL_MS);
+
+    private final String fileName;
+    private final ImportListener listener;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final AtomicLong bindNanos = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong writerIdleNanos = new AtomicLong();
+    private volatile CountingInputStream input;
+    private volatile StageReader stageReader;
+    private long lastReportNanos = startNanos - REPORT_INTERVAL_NANOS;
+
+    public ImportProgress(String fileName, ImportListener listener) {
+        this.fileName = fileName;
+        this.listener = listener;
+    }
+
+    /**
+     * Счётчики для файла с наблюдателем из customFilters["importListener"] (если он задан).
+     */
+    public static ImportProgress start(String fileName, Map<String, Object> customFilters) {
+        return new ImportProgress(fileName, StandardParam.IMPORT_LISTENER.getFrom(customFilters));
+    }
+
+    /**
+     * Оборачивает входной поток для подсчёта прочитанных байт.
+     */
+    public CountingInputStream track(InputStream inputStream) {
+        CountingInputStream counting = new CountingInputStream(inputStream);
+        this.input = counting;
+        return counting;
+    }
+
+    /**
+     * Стадия чтения конвейера: её время идёт в readNanos, а ожидание данных разбором вычитается из parseNanos.
+     */
+    public void track(StageReader reader) {
+        this.stageReader = reader;
+    }
+
+    /**
+     * Байты, прочитанные в обход {@link #track(InputStream)} (например, кусками файла).
+     */
+    public void read(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    public void parsed(long rows, long parseNanos, long bindNanos) {
+        this.rowsParsed.addAndGet(rows);
+        this.parseNanos.addAndGet(parseNanos);
+        this.bindNanos.addAndGet(bindNanos);
+    }
+
+    public void inserted(long rows, long nanos) {
+        rowsInserted.addAndGet(rows);
+        writeNanos.addAndGet(nanos);
+        batches.incrementAndGet();
+        report();
+    }
+
+    public void writerIdle(long nanos) {
+        writerIdleNanos.addAndGet(nanos);
+    }
+
+    public ImportStats snapshot() {
+        CountingInputStream counting = input;
+        StageReader reader = stageReader;
+        long parse = parseNanos.get();
+        long read = 0;
+        if (reader != null) {
+            read = reader.getReadNanos();
+            parse = Math.max(0, parse - reader.getWaitNanos());
+        }
+        return new ImportStats(
+                bytesRead.get() + (counting != null ? counting.getCount() : 0),
+                rowsParsed.get(),
+                rowsInserted.get(),
+                batches.get(),
+                System.nanoTime() - startNanos,
+                read,
+                parse,
+                bindNanos.get(),
+                writeNanos.get(),
+                writerIdleNanos.get());
+    }
+
+    /**
+     * Итоговая сводка; наблюдатель получает onComplete.
+     */
+    public ImportStats complete() {
+        ImportStats stats = snapshot();
+        if (listener != null) listener.onComplete(fileName, stats);
+        return stats;
+    }
+
+    private void report() {
+        if (listener == null) return;
+        long now = System.nanoTime();
+        if (now - lastReportNanos < REPORT_INTERVAL_NANOS) return;
+        lastReportNanos = now;
+        listener.onProgress(fileName, snapshot());
+    }
+}
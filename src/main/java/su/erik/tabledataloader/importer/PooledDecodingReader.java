@@ -0,0 +1,130 @@
+package su.erik.tabledataloader.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Декодирующий Reader поверх InputStream, который берёт байтовый буфер и CharsetDecoder из пулов и возвращает их при close().
+ * <p>
+ * Заменяет связку BufferedInputStream + InputStreamReader: байты читаются сразу в буфер декодера, без второго копирования.
+ * Некорректные последовательности заменяются символом U+FFFD, как в InputStreamReader.
+ */
+public class PooledDecodingReader extends Reader {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED = 16;
+
+    private static final BlockingQueue<ByteBuffer> BUFFERS = new ArrayBlockingQueue<>(MAX_POOLED);
+    private static final Map<Charset, BlockingQueue<CharsetDecoder>> DECODERS = new ConcurrentHashMap<>();
+
+    private final InputStream inputStream;
+    private final Charset charset;
+    private final CharsetDecoder decoder;
+    private ByteBuffer bytes;
+    private boolean endOfInput = false;
+    private boolean flushed = false;
+    private int leftover = -1;
+
+    /**
+     * @param prefilled Буфер из {@link #acquireBuffer()} с уже прочитанным началом потока (в режиме чтения) или null.
+     */
+    public PooledDecodingReader(InputStream inputStream, Charset charset, ByteBuffer prefilled) {
+        this.inputStream = inputStream;
+        this.charset = charset;
+        this.decoder = acquireDecoder(charset);
+        this.bytes = (prefilled != null) ? prefilled : acquireBuffer().flip();
+    }
+
+    /**
+     * Пустой буфер из пула (в режиме записи).
+     */
+    public static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = BUFFERS.poll();
+        return (buffer != null) ? buffer.clear() : ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    public static void releaseBuffer(ByteBuffer buffer) {
+        BUFFERS.offer(buffer);
+    }
+
+    private static CharsetDecoder acquireDecoder(Charset charset) {
+        CharsetDecoder decoder = DECODERS.computeIfAbsent(charset, ignored -> new ArrayBlockingQueue<>(MAX_POOLED)).poll();
+        if (decoder == null) {
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return decoder;
+    }
+
+    @Override
+    public int read(char[] target, int offset, int length) throws IOException {
+        if (bytes == null) throw new IOException("Stream closed");
+        if (length == 0) return 0;
+        if (leftover >= 0) {
+            target[offset] = (char) leftover;
+            leftover = -1;
+            return 1;
+        }
+        if (flushed) return -1;
+        if (length == 1) {
+            // Суррогатная пара не помещается в один символ: вторая половина отдаётся следующим вызовом
+            char[] pair = new char[2];
+            int read = read(pair, 0, 2);
+            if (read <= 0) return read;
+            target[offset] = pair[0];
+            if (read == 2) leftover = pair[1];
+            return 1;
+        }
+
+        CharBuffer out = CharBuffer.wrap(target, offset, length);
+        while (true) {
+            CoderResult result = decoder.decode(bytes, out, endOfInput);
+            if (result.isOverflow() || out.position() > offset) {
+                return out.position() - offset;
+            }
+            if (endOfInput) {
+                decoder.flush(out);
+                flushed = true;
+                return (out.position() > offset) ? out.position() - offset : -1;
+            }
+            fill();
+        }
+    }
+
+    private void fill() throws IOException {
+        bytes.compact();
+        int read = inputStream.read(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            bytes.position(bytes.position() + read);
+        }
+        bytes.flip();
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (bytes == null) return;
+        releaseBuffer(bytes);
+        bytes = null;
+        decoder.reset();
+        DECODERS.get(charset).offer(decoder);
+        inputStream.close();
+    }
+}
@@ -0,0 +1,29 @@
+package su.erik.tabledataloader.importer.checkpoint;
+
+import java.util.List;
+
+/**
+ * Хранилище точек возобновления импорта (по одной на uploadId).
+ * <p>
+ * save вызывается после каждого записанного пакета потоком импорта, поэтому должен быть быстрым.
+ * Реализация по умолчанию — {@link FileCheckpointStore}; для кластера подойдёт хранилище в БД.
+ */
+public interface CheckpointStore {
+
+    void save(ImportCheckpoint checkpoint);
+
+    /**
+     * Точка возобновления загрузки или null.
+     */
+    ImportCheckpoint load(long uploadId);
+
+    /**
+     * Удаляет точку после успешного завершения импорта.
+     */
+    void remove(long uploadId);
+
+    /**
+     * Незавершённые импорты.
+     */
+    List<ImportCheckpoint> list();
+}
@@ -0,0 +1,118 @@
+package su.erik.tabledataloader.importer.checkpoint;
+
+import com.puls.centralpricing.common.exception.StandardFault;
+import su.erik.tabledataloader.config.Constant;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Точки возобновления в файлах каталога: upload-&lt;uploadId&gt;.checkpoint в формате Properties.
+ * <p>
+ * Файл пишется во временный и атомарно переименовывается, поэтому при сбое остаётся предыдущая целая точка.
+ * fsync не делается: точка переживает падение приложения, но не обязательно падение ОС.
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private static final String SUFFIX = ".checkpoint";
+    private static final String PREFIX = "upload-";
+
+    private final Path directory;
+
+    public FileCheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Хранилище в каталоге java.io.tmpdir/tabledataloader-checkpoints.
+     */
+    public static FileCheckpointStore inTempDirectory() {
+        return new FileCheckpointStore(Path.of(System.getProperty("java.io.tmpdir"), Constant.CHECKPOINT_DIRECTORY));
+    }
+
+    @Override
+    public void save(ImportCheckpoint checkpoint) {
+        Properties properties = new Properties();
+        properties.setProperty("uploadId", Long.toString(checkpoint.uploadId()));
+        properties.setProperty("fileName", checkpoint.fileName() != null ? checkpoint.fileName() : "");
+        properties.setProperty("fileSize", Long.toString(checkpoint.fileSize()));
+        properties.setProperty("byteOffset", Long.toString(checkpoint.byteOffset()));
+        properties.setProperty("rowNumber", Long.toString(checkpoint.rowNumber()));
+        try {
+            Files.createDirectories(directory);
+            Path target = fileOf(checkpoint.uploadId());
+            Path temp = Files.createTempFile(directory, PREFIX, ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                properties.store(outputStream, null);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException _) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException exception) {
+            throw new StandardFault(exception);
+        }
+    }
+
+    @Override
+    public ImportCheckpoint load(long uploadId) {
+        return read(fileOf(uploadId));
+    }
+
+    @Override
+    public void remove(long uploadId) {
+        try {
+            Files.deleteIfExists(fileOf(uploadId));
+        } catch (IOException exception) {
+            throw new StandardFault(exception);
+        }
+    }
+
+    @Override
+    public List<ImportCheckpoint> list() {
+        if (!Files.isDirectory(directory)) return List.of();
+        List<ImportCheckpoint> checkpoints = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(SUFFIX)) continue;
+                ImportCheckpoint checkpoint = read(file);
+                if (checkpoint != null) checkpoints.add(checkpoint);
+            }
+        } catch (IOException exception) {
+            throw new StandardFault(exception);
+        }
+        return checkpoints;
+    }
+
+    private ImportCheckpoint read(Path file) {
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        } catch (NoSuchFileException _) {
+            return null;
+        } catch (IOException exception) {
+            throw new StandardFault(exception);
+        }
+        return new ImportCheckpoint(
+                Long.parseLong(properties.getProperty("uploadId")),
+                properties.getProperty("fileName"),
+                Long.parseLong(properties.getProperty("fileSize")),
+                Long.parseLong(properties.getProperty("byteOffset")),
+                Long.parseLong(properties.getProperty("rowNumber")));
+    }
+
+    private Path fileOf(long uploadId) {
+        return directory.resolve(PREFIX + uploadId + SUFFIX);
+    }
+}
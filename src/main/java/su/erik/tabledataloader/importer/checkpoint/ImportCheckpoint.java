@@ -0,0 +1,14 @@
+package su.erik.tabledataloader.importer.checkpoint;
+
+import java.io.Serializable;
+
+/**
+ * Точка возобновления импорта: всё до byteOffset записано в БД.
+ *
+ * @param fileName   Имя импортируемого файла.
+ * @param fileSize   Размер файла; при возобновлении файл должен совпадать по размеру.
+ * @param byteOffset Смещение начала первой незаписанной строки.
+ * @param rowNumber  Сколько строк загрузки уже записано.
+ */
+public record ImportCheckpoint(long uploadId, String fileName, long fileSize, long byteOffset, long rowNumber) implements Serializable {
+}
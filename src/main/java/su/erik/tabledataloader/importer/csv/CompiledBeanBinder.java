@@ -0,0 +1,396 @@
+package su.erik.tabledataloader.importer.csv;
+
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvBindByPosition;
+import com.opencsv.exceptions.CsvDataTypeMismatchException;
+import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
+import su.erik.tabledataloader.importer.annotation.DynamicColumn;
+import su.erik.tabledataloader.importer.annotation.ImporterBindByIndex;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Привязка строки CSV к DTO без рефлексии на каждой строке.
+ * <p>
+ * Строится один раз на класс и кешируется ({@link #of}): конструктор и сеттеры превращаются в лямбды
+ * через LambdaMetafactory, поля без сеттера пишутся через MethodHandle. Значения приводятся к типу поля
+ * заранее выбранным конвертером.
+ * <p>
+ * Поддерживаются простые типы (String, числа, Boolean, BigDecimal) и аннотации
+ * CsvBindByName/CsvBindByPosition без дополнительных настроек. Для остального (даты, CsvDate, конвертеры)
+ * {@link #isSupported()} = false, и загрузчик использует стратегию opencsv.
+ * <p>
+ * Ошибки те же, что у opencsv: CsvDataTypeMismatchException для значения, которое не приводится к типу поля,
+ * CsvRequiredFieldEmptyException для строки с числом полей, отличным от заголовка.
+ */
+public final class CompiledBeanBinder<T> {
+
+    /**
+     * Преобразование строки CSV в бин.
+     */
+    @FunctionalInterface
+    public interface LineBinder<T> {
+        T bind(String[] line) throws Exception;
+    }
+
+    private record Column(String name, int position, Class<?> type, Function<String, Object> converter, BiConsumer<Object, Object> writer) {
+        boolean text() {
+            return type == String.class;
+        }
+    }
+
+    private static final ClassValue<CompiledBeanBinder<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected CompiledBeanBinder<?> computeValue(Class<?> type) {
+            return new CompiledBeanBinder<>(type);
+        }
+    };
+
+    private static final Map<Class<?>, Function<String, Object>> CONVERTERS = Map.ofEntries(
+            Map.entry(String.class, value -> value),
+            Map.entry(Long.class, value -> Long.valueOf(value.trim())),
+            Map.entry(long.class, value -> Long.valueOf(value.trim())),
+            Map.entry(Integer.class, value -> Integer.valueOf(value.trim())),
+            Map.entry(int.class, value -> Integer.valueOf(value.trim())),
+            Map.entry(Short.class, value -> Short.valueOf(value.trim())),
+            Map.entry(short.class, value -> Short.valueOf(value.trim())),
+            Map.entry(Double.class, value -> Double.valueOf(value.trim())),
+            Map.entry(double.class, value -> Double.valueOf(value.trim())),
+            Map.entry(Float.class, value -> Float.valueOf(value.trim())),
+            Map.entry(float.class, value -> Float.valueOf(value.trim())),
+            Map.entry(Boolean.class, CompiledBeanBinder::parseBoolean),
+            Map.entry(boolean.class, CompiledBeanBinder::parseBoolean),
+            Map.entry(BigDecimal.class, value -> new BigDecimal(value.trim()))
+    );
+
+    private final Class<T> type;
+    private final boolean supported;
+    private final boolean headerBound;
+    private final Supplier<Object> factory;
+    private final List<Column> columns;
+    private final Function<Object, Object> dynamicFactory;
+    private final BiConsumer<Object, Object>[] indexSetters;
+
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledBeanBinder<T> of(Class<T> type) {
+        return (CompiledBeanBinder<T>) CACHE.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompiledBeanBinder(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = privateLookup(type);
+
+        if (type.isAnnotationPresent(DynamicColumn.class)) {
+            this.dynamicFactory = (lookup != null) ? compileDynamicFactory(lookup, type) : null;
+            this.indexSetters = (lookup != null) ? compileIndexSetters(type) : null;
+            this.factory = null;
+            this.columns = List.of();
+            this.headerBound = false;
+            this.supported = dynamicFactory != null && indexSetters != null;
+            return;
+        }
+
+        this.dynamicFactory = null;
+        this.indexSetters = null;
+        Supplier<Object> compiledFactory = null;
+        List<Column> compiledColumns = null;
+        boolean byName = false;
+        if (lookup != null && !Modifier.isAbstract(type.getModifiers())) {
+            compiledFactory = compileFactory(lookup, type);
+            byName = !hasAnnotatedField(type, CsvBindByPosition.class);
+            compiledColumns = compileColumns(type, byName);
+        }
+        this.factory = compiledFactory;
+        this.columns = (compiledColumns != null) ? compiledColumns : List.of();
+        this.headerBound = byName;
+        this.supported = compiledFactory != null && compiledColumns != null && !compiledColumns.isEmpty();
+    }
+
+    /**
+     * false — класс не удалось скомпилировать (нестандартные аннотации/типы), нужна стратегия opencsv.
+     */
+    public boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * true — колонки привязаны по именам (CsvBindByName), для привязки нужна строка заголовка.
+     */
+    public boolean isHeaderBound() {
+        return headerBound;
+    }
+
+    /**
+     * Привязка по позициям (CsvBindByPosition). Лишние колонки строки игнорируются, недостающие не заполняются.
+     */
+    public LineBinder<T> forPositions() {
+        Column[] bound = columns.toArray(Column[]::new);
+        return line -> populate(line, bound, positionsOf(bound));
+    }
+
+    /**
+     * Привязка по именам колонок заголовка (без учёта регистра, как в opencsv).
+     * Число полей строки должно совпадать с числом колонок заголовка.
+     */
+    public LineBinder<T> forHeader(String[] header) {
+        Map<String, Integer> headerIndex = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            if (header[i] == null) continue;
+            headerIndex.putIfAbsent(normalizeName(header[i]), i);
+        }
+        List<Column> bound = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (Column column : columns) {
+            Integer position = headerIndex.get(normalizeName(column.name()));
+            if (position != null) {
+                bound.add(column);
+                positions.add(position);
+            }
+        }
+        Column[] boundColumns = bound.toArray(Column[]::new);
+        int[] boundPositions = positions.stream().mapToInt(Integer::intValue).toArray();
+        int headerLength = header.length;
+        return line -> {
+            if (line.length != headerLength) {
+                throw new CsvRequiredFieldEmptyException(type, "Number of data fields (" + line.length + ") does not match number of headers (" + headerLength + ")");
+            }
+            return populate(line, boundColumns, boundPositions);
+        };
+    }
+
+    /**
+     * Создаёт бин {@link DynamicColumn} через конструктор (Integer/int dynamicSize).
+     */
+    @SuppressWarnings("unchecked")
+    public T newDynamicInstance(int dynamicSize) {
+        return (T) dynamicFactory.apply(dynamicSize);
+    }
+
+    /**
+     * Вызывает сеттер {@link ImporterBindByIndex} для колонки index, если он есть.
+     */
+    public void setIndexed(T bean, int index, String value) {
+        if (index < indexSetters.length && indexSetters[index] != null) {
+            indexSetters[index].accept(bean, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T populate(String[] line, Column[] bound, int[] positions) throws CsvDataTypeMismatchException {
+        T bean = (T) factory.get();
+        for (int i = 0; i < bound.length; i++) {
+            int position = positions[i];
+            if (position >= line.length) continue;
+            String value = line[position];
+            Column column = bound[i];
+            if (value == null || (!column.text() && value.isBlank())) {
+                // Пустое значение: обёртка остаётся null, примитив — значением по умолчанию
+                continue;
+            }
+            Object converted;
+            try {
+                converted = column.converter().apply(value);
+            } catch (RuntimeException exception) {
+                CsvDataTypeMismatchException mismatch = new CsvDataTypeMismatchException(value, column.type(),
+                        "Cannot bind value '" + value + "' to field " + type.getSimpleName() + "." + column.name());
+                mismatch.initCause(exception);
+                throw mismatch;
+            }
+            column.writer().accept(bean, converted);
+        }
+        return bean;
+    }
+
+    /**
+     * Boolean как в opencsv (BooleanConverter из commons-beanutils): true/yes/y/on/1 и false/no/n/off/0
+     * без учёта регистра, остальное — ошибка, а не false.
+     */
+    private static Object parseBoolean(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "on", "1" -> Boolean.TRUE;
+            case "false", "no", "n", "off", "0" -> Boolean.FALSE;
+            default -> throw new IllegalArgumentException("Cannot convert '" + value + "' to Boolean");
+        };
+    }
+
+    private static int[] positionsOf(Column[] columns) {
+        return Arrays.stream(columns).mapToInt(Column::position).toArray();
+    }
+
+    private static String normalizeName(String name) {
+        return name.replace("\uFEFF", "").trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static MethodHandles.Lookup privateLookup(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+    }
+
+    private static boolean hasAnnotatedField(Class<?> type, Class<? extends Annotation> annotation) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(annotation)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Колонки по аннотированным полям. null — есть поле, которое привязать не получается.
+     */
+    private static List<Column> compileColumns(Class<?> type, boolean byName) {
+        List<Column> columns = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                CsvBindByName nameBinding = field.getAnnotation(CsvBindByName.class);
+                CsvBindByPosition positionBinding = field.getAnnotation(CsvBindByPosition.class);
+                if ((byName ? nameBinding : positionBinding) == null) continue;
+                if (hasCustomOpenCsvSettings(field, nameBinding, positionBinding)) return null;
+
+                Function<String, Object> converter = CONVERTERS.get(field.getType());
+                BiConsumer<Object, Object> writer = compileWriter(current, field);
+                if (converter == null || writer == null) return null;
+
+                String name = byName ? (nameBinding.column().isEmpty() ? field.getName() : nameBinding.column()) : field.getName();
+                int position = byName ? -1 : positionBinding.position();
+                columns.add(new Column(name, position, field.getType(), converter, writer));
+            }
+        }
+        return columns;
+    }
+
+    private static boolean hasCustomOpenCsvSettings(Field field, CsvBindByName nameBinding, CsvBindByPosition positionBinding) {
+        if (nameBinding != null && (nameBinding.required() || !nameBinding.locale().isEmpty() || !nameBinding.capture().isEmpty())) return true;
+        if (positionBinding != null && (positionBinding.required() || !positionBinding.locale().isEmpty() || !positionBinding.capture().isEmpty())) return true;
+        // CsvDate, CsvNumber, CsvCustomBind* и т.п. — только через opencsv
+        for (Annotation annotation : field.getAnnotations()) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (annotationType.getPackageName().startsWith("com.opencsv") && annotationType != CsvBindByName.class && annotationType != CsvBindByPosition.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Сеттер setXxx(тип поля) как opencsv, иначе запись в поле через MethodHandle.
+     */
+    private static BiConsumer<Object, Object> compileWriter(Class<?> owner, Field field) {
+        String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            Method setter = owner.getMethod(setterName, field.getType());
+            return compileBiConsumer(owner, setter);
+        } catch (NoSuchMethodException _) {
+            // Сеттера нет — пишем в поле
+        }
+        if (Modifier.isFinal(field.getModifiers()) || Modifier.isStatic(field.getModifiers())) return null;
+        try {
+            MethodHandles.Lookup ownerLookup = privateLookup(owner);
+            if (ownerLookup == null) return null;
+            MethodHandle fieldSetter = ownerLookup
+                    .unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try {
+                    fieldSetter.invokeExact(bean, value);
+                } catch (RuntimeException | Error exception) {
+                    throw exception;
+                } catch (Throwable throwable) {
+                    throw new IllegalStateException(throwable);
+                }
+            };
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compileBiConsumer(Class<?> owner, Method method) {
+        try {
+            MethodHandles.Lookup ownerLookup = privateLookup(owner);
+            if (ownerLookup == null) return null;
+            MethodHandle target = ownerLookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(ownerLookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    target,
+                    MethodType.methodType(void.class, owner, MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType()));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable throwable) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> compileFactory(MethodHandles.Lookup lookup, Class<?> type) {
+        try {
+            MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(type));
+            return (Supplier<Object>) site.getTarget().invokeExact();
+        } catch (Throwable throwable) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compileDynamicFactory(MethodHandles.Lookup lookup, Class<?> type) {
+        for (Class<?> parameterType : new Class<?>[]{Integer.class, int.class}) {
+            try {
+                MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterType));
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        constructor,
+                        MethodType.methodType(type, Integer.class));
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable _) {
+                // Пробуем следующий вариант конструктора
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object>[] compileIndexSetters(Class<?> type) {
+        Map<Integer, BiConsumer<Object, Object>> setters = new HashMap<>();
+        int maxIndex = -1;
+        for (Method method : type.getMethods()) {
+            ImporterBindByIndex binding = method.getAnnotation(ImporterBindByIndex.class);
+            if (binding == null) continue;
+            if (method.getParameterCount() != 1 || method.getParameterTypes()[0] != String.class) return null;
+            BiConsumer<Object, Object> setter = compileBiConsumer(method.getDeclaringClass(), method);
+            if (setter == null) return null;
+            setters.put(binding.value(), setter);
+            maxIndex = Math.max(maxIndex, binding.value());
+        }
+        BiConsumer<Object, Object>[] indexed = new BiConsumer[maxIndex + 1];
+        setters.forEach((index, setter) -> indexed[index] = setter);
+        return indexed;
+    }
+}
@@ -0,0 +1,83 @@
+package su.erik.tabledataloader.importer.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Поиск границ записей CSV в файле по байтам, без декодирования.
+ * <p>
+ * Повторяет правила {@link CsvTokenizer}: кавычка открывает значение только в начале ячейки,
+ * "" внутри кавычек — экранированная кавычка, перевод строки внутри кавычек границей не является.
+ * Годится только для кодировок, где ASCII-символы кодируются одним и тем же байтом (UTF-8, однобайтовые).
+ * <p>
+ * Сканирование идёт строго вперёд: каждый следующий вызов {@link #nextBoundary} продолжает с места предыдущего.
+ */
+public class CsvRecordBoundaryScanner {
+
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_SEEN = 3;
+
+    private final FileChannel channel;
+    private final byte separator;
+    private final long size;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 20).flip();
+    private long position;
+    private int state = FIELD_START;
+    private boolean afterCarriageReturn;
+
+    public CsvRecordBoundaryScanner(FileChannel channel, byte separator, long startOffset) throws IOException {
+        this.channel = channel;
+        this.separator = separator;
+        this.size = channel.size();
+        this.position = startOffset;
+    }
+
+    /**
+     * Смещение начала первой записи, начинающейся не раньше minOffset, либо размер файла.
+     */
+    public long nextBoundary(long minOffset) throws IOException {
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                buffer.flip();
+                if (read <= 0) return size;
+            }
+            byte value = buffer.get();
+            position++;
+
+            if (afterCarriageReturn) {
+                afterCarriageReturn = false;
+                if (value == '\n') {
+                    if (position >= minOffset) return position;
+                    continue;
+                }
+                // Одиночный CR: запись закончилась перед текущим байтом
+                if (position - 1 >= minOffset) {
+                    buffer.position(buffer.position() - 1);
+                    position--;
+                    return position;
+                }
+            }
+
+            if (state == QUOTED) {
+                if (value == '"') state = QUOTE_SEEN;
+            } else if (value == '"' && (state == FIELD_START || state == QUOTE_SEEN)) {
+                state = QUOTED;
+            } else if (value == separator) {
+                state = FIELD_START;
+            } else if (value == '\n') {
+                state = FIELD_START;
+                if (position >= minOffset) return position;
+            } else if (value == '\r') {
+                state = FIELD_START;
+                afterCarriageReturn = true;
+            } else {
+                state = UNQUOTED;
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package su.erik.tabledataloader.importer.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Встроенный разборщик CSV (движок {@link su.erik.tabledataloader.config.EnumCsvParser#BUILTIN}).
+ * <p>
+ * Читает из одного переиспользуемого буфера char[]: ячейка собирается прямо в буфере (кавычки "" сворачиваются на месте)
+ * и превращается в String одним копированием, без промежуточных StringBuilder. Массив строки переиспользуется,
+ * пока число колонок не меняется, поэтому ссылку на результат {@link #readNext()} нельзя хранить между вызовами.
+ * <p>
+ * Формат: разделитель {@code separator}, кавычки {@code "}, экранирование удвоением кавычки (RFC 4180),
+ * переводы строк LF, CRLF и CR, многострочные значения в кавычках. Обратный слэш — обычный символ.
+ */
+public class CsvTokenizer implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final char QUOTE = '"';
+
+    private final Reader reader;
+    private final char separator;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private int mark;
+    private boolean endOfStream;
+
+    private String[] fields = new String[16];
+    private int fieldCount;
+    private String[] record = new String[0];
+
+    public CsvTokenizer(Reader reader, char separator) {
+        this(reader, separator, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvTokenizer(Reader reader, char separator, int bufferSize) {
+        this.reader = reader;
+        this.separator = separator;
+        this.buffer = new char[Math.max(bufferSize, 16)];
+    }
+
+    /**
+     * Следующая запись или null в конце потока. Пустая строка файла возвращается как [""] (как в opencsv).
+     */
+    public String[] readNext() throws IOException {
+        mark = position;
+        if (position >= limit && !fill()) return null;
+
+        fieldCount = 0;
+        int length = 0;
+        boolean quoted = false;
+        boolean inQuotes = false;
+
+        while (true) {
+            if (position >= limit && !fill()) {
+                if (inQuotes) throw new IOException("Unterminated quoted field at end of CSV data");
+                addField(length);
+                return completeRecord();
+            }
+            char value = buffer[position++];
+
+            if (inQuotes) {
+                if (value == QUOTE) {
+                    if (position >= limit && !fill()) {
+                        addField(length);
+                        return completeRecord();
+                    }
+                    if (buffer[position] == QUOTE) {
+                        buffer[mark + length++] = QUOTE;
+                        position++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    buffer[mark + length++] = value;
+                }
+            } else if (value == separator) {
+                addField(length);
+                mark = position;
+                length = 0;
+                quoted = false;
+            } else if (value == '\n') {
+                addField(length);
+                return completeRecord();
+            } else if (value == '\r') {
+                addField(length);
+                mark = position;
+                if ((position < limit || fill()) && buffer[position] == '\n') position++;
+                return completeRecord();
+            } else if (value == QUOTE && length == 0 && !quoted) {
+                quoted = true;
+                inQuotes = true;
+            } else {
+                buffer[mark + length++] = value;
+            }
+        }
+    }
+
+    private void addField(int length) {
+        if (fieldCount == fields.length) fields = Arrays.copyOf(fields, fieldCount * 2);
+        fields[fieldCount++] = new String(buffer, mark, length);
+    }
+
+    private String[] completeRecord() {
+        if (record.length != fieldCount) record = new String[fieldCount];
+        System.arraycopy(fields, 0, record, 0, fieldCount);
+        return record;
+    }
+
+    /**
+     * Дочитывает данные, сохраняя в буфере текущую ячейку (с позиции mark). false — конец потока.
+     */
+    private boolean fill() throws IOException {
+        if (endOfStream) return false;
+        if (mark > 0) {
+            System.arraycopy(buffer, mark, buffer, 0, limit - mark);
+            position -= mark;
+            limit -= mark;
+            mark = 0;
+        }
+        if (limit == buffer.length) {
+            // Ячейка длиннее буфера
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read <= 0) {
+            endOfStream = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
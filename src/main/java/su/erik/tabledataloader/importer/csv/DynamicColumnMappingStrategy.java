@@ -19,6 +19,7 @@ public class DynamicColumnMappingStrategy<T> extends ColumnPositionMappingStrate
     private int startsFromIndex;
     private final Map<Integer, Method> indexMethods = new HashMap<>();
     private Constructor<? extends T> constructor;
+    private CompiledBeanBinder<T> binder;
     private ImportMapper<T> importMapper;
     private Map<String, Object> customFilters;
 
@@ -46,11 +47,16 @@ public class DynamicColumnMappingStrategy<T> extends ColumnPositionMappingStrate
         if (line == null || line.length == 0) return null;
         try {
             int dynamicSize = Math.max(0, line.length - startsFromIndex);
-            T bean = constructor.newInstance(dynamicSize);
+            // Скомпилированный binder вместо Constructor.newInstance/Method.invoke на каждой строке
+            T bean = (binder != null) ? binder.newDynamicInstance(dynamicSize) : constructor.newInstance(dynamicSize);
             for (int i = 0; i < line.length; i++) {
                 if (i < startsFromIndex) {
-                    Method m = indexMethods.get(i);
-                    if (m != null) m.invoke(bean, line[i]);
+                    if (binder != null) {
+                        binder.setIndexed(bean, i, line[i]);
+                    } else {
+                        Method m = indexMethods.get(i);
+                        if (m != null) m.invoke(bean, line[i]);
+                    }
                 } else if (bean instanceof ImportDynamic) {
                     ((ImportDynamic<?>) bean).setterDynamicValue(line[i], i - startsFromIndex);
                 }
@@ -62,6 +68,7 @@ public class DynamicColumnMappingStrategy<T> extends ColumnPositionMappingStrate
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void setType(Class<? extends T> type) throws CsvBeanIntrospectionException {
         super.setType(type);
         DynamicColumn ann = type.getAnnotation(DynamicColumn.class);
@@ -74,6 +81,8 @@ public class DynamicColumnMappingStrategy<T> extends ColumnPositionMappingStrate
                     indexMethods.put(m.getAnnotation(ImporterBindByIndex.class).value(), m);
                 }
             }
+            CompiledBeanBinder<T> compiled = CompiledBeanBinder.of((Class<T>) type);
+            this.binder = compiled.isSupported() ? compiled : null;
         }
     }
 }
\ No newline at end of file
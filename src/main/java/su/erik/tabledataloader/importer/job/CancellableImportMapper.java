@@ -0,0 +1,78 @@
+package su.erik.tabledataloader.importer.job;
+
+import su.erik.tabledataloader.importer.ImportMapper;
+import su.erik.tabledataloader.importer.model.UploadDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Маппер асинхронного импорта: запоминает созданные uploadId и прерывает импорт на ближайшей записи после отмены.
+ * Загрузчики пишут пакетами, поэтому разбор останавливается не позже чем через один пакет.
+ */
+class CancellableImportMapper<T> implements ImportMapper<T> {
+
+    private final ImportMapper<T> delegate;
+    private final ImportJob job;
+
+    CancellableImportMapper(ImportMapper<T> delegate, ImportJob job) {
+        this.delegate = delegate;
+        this.job = job;
+    }
+
+    @Override
+    public void insertHeader(UploadDTO uploadDTO) {
+        checkCancelled();
+        delegate.insertHeader(uploadDTO);
+        if (uploadDTO.getId() != null) job.addUploadId(uploadDTO.getId());
+    }
+
+    @Override
+    public void createTempTable(List<String> headers, String tempTableName) {
+        checkCancelled();
+        delegate.createTempTable(headers, tempTableName);
+    }
+
+    @Override
+    public void insert(Map<String, Object> customFilters) {
+        checkCancelled();
+        delegate.insert(customFilters);
+    }
+
+    @Override
+    public void insertBatch(List<T> batch, Map<String, Object> customFilters) {
+        checkCancelled();
+        delegate.insertBatch(batch, customFilters);
+    }
+
+    @Override
+    public boolean isBatchCommitSupported() {
+        return delegate.isBatchCommitSupported();
+    }
+
+    @Override
+    public void commitBatch(Map<String, Object> customFilters) {
+        delegate.commitBatch(customFilters);
+    }
+
+    @Override
+    public void delete(long uploadId) {
+        delegate.delete(uploadId);
+    }
+
+    @Override
+    public void finish(Map<String, Object> customFilters) {
+        checkCancelled();
+        delegate.finish(customFilters);
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    private void checkCancelled() {
+        if (job.isCancelRequested()) throw new CancellationException("Import job " + job.getId() + " cancelled");
+    }
+}
@@ -0,0 +1,127 @@
+package su.erik.tabledataloader.importer.job;
+
+import su.erik.tabledataloader.config.EnumImportJobStatus;
+import su.erik.tabledataloader.importer.ImportListener;
+import su.erik.tabledataloader.importer.ImportMapper;
+import su.erik.tabledataloader.importer.model.ImportStats;
+import su.erik.tabledataloader.importer.model.ResultDTO;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Асинхронный импорт, зарегистрированный в {@link ImportJobRegistry}.
+ * <p>
+ * Получает отчёты о ходе импорта как {@link ImportListener} и передаёт их дальше наблюдателю контекста.
+ * Отмена кооперативная: маппер задачи бросает CancellationException на ближайшей записи в БД,
+ * после чего все созданные задачей загрузки удаляются через ImportMapper.delete(uploadId).
+ */
+public class ImportJob implements ImportListener {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String fileName;
+    private final ImportListener listener;
+    private final Instant createdAt = Instant.now();
+    private final Set<Long> uploadIds = ConcurrentHashMap.newKeySet();
+    private volatile EnumImportJobStatus status = EnumImportJobStatus.QUEUED;
+    private volatile boolean cancelRequested = false;
+    private volatile Instant finishedAt;
+    private volatile ImportStats progress;
+    private volatile ResultDTO result;
+    private volatile String error;
+
+    ImportJob(String fileName, ImportListener listener) {
+        this.fileName = fileName;
+        this.listener = listener;
+    }
+
+    /**
+     * Тело задачи: импорт через переданный маппер, с этой задачей в роли наблюдателя.
+     */
+    @FunctionalInterface
+    public interface ImportTask<T> {
+        ResultDTO run(ImportMapper<T> mapper, ImportJob job) throws Exception;
+    }
+
+    <T> void run(ImportMapper<T> mapper, ImportTask<T> task) {
+        if (cancelRequested) {
+            finish(EnumImportJobStatus.CANCELLED);
+            return;
+        }
+        status = EnumImportJobStatus.RUNNING;
+        try {
+            result = task.run(new CancellableImportMapper<>(mapper, this), this);
+            finish(EnumImportJobStatus.COMPLETED);
+        } catch (Throwable exception) {
+            // Throwable, а не Exception: после Error (OOM, StackOverflowError) задача тоже должна завершиться,
+            // иначе она навсегда остаётся RUNNING и реестр её не удаляет
+            if (cancelRequested) {
+                cleanup(mapper);
+                finish(EnumImportJobStatus.CANCELLED);
+            } else {
+                error = String.valueOf(exception.getCause() != null ? exception.getCause().getMessage() : exception.getMessage());
+                finish(EnumImportJobStatus.FAILED);
+            }
+            if (exception instanceof Error fatal) throw fatal;
+        }
+    }
+
+    private void cleanup(ImportMapper<?> mapper) {
+        for (Long uploadId : uploadIds) {
+            try {
+                mapper.delete(uploadId);
+            } catch (RuntimeException exception) {
+                error = "Cleanup of upload " + uploadId + " failed: " + exception.getMessage();
+            }
+        }
+    }
+
+    private void finish(EnumImportJobStatus finalStatus) {
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    /**
+     * Запрос отмены. false, если задача уже завершена.
+     */
+    public boolean cancel() {
+        if (isDone()) return false;
+        cancelRequested = true;
+        return true;
+    }
+
+    public boolean isDone() {
+        EnumImportJobStatus current = status;
+        return current == EnumImportJobStatus.COMPLETED || current == EnumImportJobStatus.FAILED || current == EnumImportJobStatus.CANCELLED;
+    }
+
+    void addUploadId(long uploadId) {
+        uploadIds.add(uploadId);
+    }
+
+    @Override
+    public void onProgress(String fileName, ImportStats progress) {
+        this.progress = progress;
+        if (listener != null) listener.onProgress(fileName, progress);
+    }
+
+    @Override
+    public void onComplete(String fileName, ImportStats stats) {
+        this.progress = stats;
+        if (listener != null) listener.onComplete(fileName, stats);
+    }
+
+    public ImportJobInfo getInfo() {
+        return new ImportJobInfo(id, fileName, status, createdAt, finishedAt, progress, result, error);
+    }
+
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+    public EnumImportJobStatus getStatus() { return status; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public ResultDTO getResult() { return result; }
+    public List<Long> getUploadIds() { return List.copyOf(uploadIds); }
+}
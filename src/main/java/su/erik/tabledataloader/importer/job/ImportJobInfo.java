@@ -0,0 +1,19 @@
+package su.erik.tabledataloader.importer.job;
+
+import su.erik.tabledataloader.config.EnumImportJobStatus;
+import su.erik.tabledataloader.importer.model.ImportStats;
+import su.erik.tabledataloader.importer.model.ResultDTO;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Снимок состояния асинхронного импорта для ответа клиенту.
+ *
+ * @param progress Последний отчёт о ходе импорта (null до первого пакета).
+ * @param result   Итог импорта (только для COMPLETED).
+ * @param error    Текст ошибки (только для FAILED).
+ */
+public record ImportJobInfo(String id, String fileName, EnumImportJobStatus status, Instant createdAt, Instant finishedAt,
+                            ImportStats progress, ResultDTO result, String error) implements Serializable {
+}
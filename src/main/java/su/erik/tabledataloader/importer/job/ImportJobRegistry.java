@@ -0,0 +1,77 @@
+package su.erik.tabledataloader.importer.job;
+
+import su.erik.tabledataloader.importer.ImportListener;
+import su.erik.tabledataloader.importer.ImportMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Реестр асинхронных импортов контекста (DataLoaderContext.getImportJobRegistry).
+ * <p>
+ * Задачи выполняются на executor'е реестра (по умолчанию — виртуальный поток на задачу) и остаются в реестре
+ * после завершения, пока их не удалят через {@link #remove}: по id клиент опрашивает состояние и забирает итог.
+ */
+public class ImportJobRegistry {
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Executor executor;
+
+    public ImportJobRegistry() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public ImportJobRegistry(Executor executor) {
+        this.executor = executor;
+    }
+
+    public <T> ImportJob submit(String fileName, ImportMapper<T> mapper, ImportListener listener, ImportJob.ImportTask<T> task) {
+        ImportJob job = new ImportJob(fileName, listener);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> job.run(mapper, task));
+        } catch (RuntimeException exception) {
+            jobs.remove(job.getId());
+            throw exception;
+        }
+        return job;
+    }
+
+    /**
+     * Задача по id или null.
+     */
+    public ImportJob get(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Запрос отмены задачи. false, если задачи нет или она уже завершена.
+     */
+    public boolean cancel(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job != null && job.cancel();
+    }
+
+    /**
+     * Удаляет завершённую задачу из реестра. Незавершённые задачи не удаляются (возвращается null).
+     */
+    public ImportJob remove(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.isDone()) return null;
+        return jobs.remove(jobId);
+    }
+
+    /**
+     * Удаляет все завершённые задачи.
+     */
+    public void purgeFinished() {
+        jobs.values().removeIf(ImportJob::isDone);
+    }
+
+    public List<ImportJob> getJobs() {
+        return List.copyOf(jobs.values());
+    }
+}
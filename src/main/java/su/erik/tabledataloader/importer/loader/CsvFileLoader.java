@@ -7,26 +7,63 @@ import com.opencsv.bean.ColumnPositionMappingStrategy;
 import com.opencsv.bean.CsvBindByPosition;
 import com.opencsv.bean.HeaderColumnNameMappingStrategy;
 import com.opencsv.bean.MappingStrategy;
+import com.puls.centralpricing.common.exception.StandardFault;
 import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.config.EnumCsvParser;
+import su.erik.tabledataloader.config.StandardParam;
 import su.erik.tabledataloader.importer.AbstractFileLoader;
 import su.erik.tabledataloader.importer.EncodingDetector;
 import su.erik.tabledataloader.importer.ImportMapper;
+import su.erik.tabledataloader.importer.ImportProgress;
+import su.erik.tabledataloader.importer.PooledDecodingReader;
+import su.erik.tabledataloader.importer.checkpoint.CheckpointStore;
+import su.erik.tabledataloader.importer.checkpoint.ImportCheckpoint;
 import su.erik.tabledataloader.importer.annotation.DynamicColumn;
+import su.erik.tabledataloader.importer.csv.CompiledBeanBinder;
+import su.erik.tabledataloader.importer.csv.CsvRecordBoundaryScanner;
+import su.erik.tabledataloader.importer.csv.CsvTokenizer;
 import su.erik.tabledataloader.importer.csv.DynamicColumnMappingStrategy;
+import su.erik.tabledataloader.importer.model.ImportStats;
 import su.erik.tabledataloader.importer.model.ResultDTO;
 import su.erik.tabledataloader.importer.model.UploadDTO;
+import su.erik.tabledataloader.importer.pipeline.ImportPipelineConfig;
+import su.erik.tabledataloader.importer.pipeline.StageReader;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Загрузчик CSV файлов.
  */
 public class CsvFileLoader<T> extends AbstractFileLoader<T> {
 
+    private static final long PARALLEL_CHUNK_SIZE = 8L * 1024 * 1024;
+
     public CsvFileLoader(Class<T> importDTOClass, ImportMapper<T> importMapper, Map<String, Object> customFilters) {
         super(importDTOClass, importMapper, customFilters);
     }
@@ -34,17 +71,27 @@ public class CsvFileLoader<T> extends AbstractFileLoader<T> {
     @Override
     protected Iterable<T> iteratorBuilder(InputStream inputStream) { return null; }
 
+    /**
+     * Последовательный импорт из потока.
+     * <p>
+     * При customFilters["importPipeline"] импорт идёт конвейером: чтение и декодирование, разбор со связыванием DTO
+     * и запись в БД работают одновременно и связаны ограниченными очередями (см. {@link #importPipelined}).
+     */
     @Override
     public ResultDTO importFile(InputStream inputStream, String name, long size, String entity, Long userId) {
+        if (StandardParam.RESUME_UPLOAD_ID.getFrom(customFilters) != null) {
+            throw new IllegalStateException("Import can be resumed only from a local file");
+        }
+        ImportPipelineConfig pipeline = StandardParam.IMPORT_PIPELINE.getFrom(customFilters);
+        ImportProgress progress = ImportProgress.start(name, customFilters);
         // Оборачиваем в try-with-resources для автоматического закрытия csvReader и лежащего под ним streamReader
-        try (InputStreamReader streamReader = EncodingDetector.getReader(inputStream);
-             CSVReader csvReader = new CSVReaderBuilder(streamReader)
-                     .withCSVParser(new CSVParserBuilder().withSeparator(Constant.SEPARATOR).build())
-                     .build()) {
+        try (Reader streamReader = EncodingDetector.getReader(progress.track(inputStream), EncodingDetector.getCharsetHint(customFilters));
+             Reader source = (pipeline != null) ? new StageReader(streamReader, pipeline) : streamReader;
+             RecordReader csvReader = openRecordReader(source)) {
 
             String[] currentLine = csvReader.readNext();
             if (currentLine == null) {
-                return new ResultDTO(0L, 0);
+                return new ResultDTO(0L, 0, progress.complete());
             }
 
             UploadDTO uploadDTO = new UploadDTO(name, userId, LocalDate.now(), size, entity);
@@ -52,9 +99,17 @@ public class CsvFileLoader<T> extends AbstractFileLoader<T> {
             long uploadId = uploadDTO.getId() != null ? uploadDTO.getId() : 0L;
 
             MappingStrategy<T> strategy = resolveStrategy(importDTOClass);
+            CompiledBeanBinder<T> binder = CompiledBeanBinder.of(importDTOClass);
+            boolean compiled = binder.isSupported() && !(strategy instanceof DynamicColumnMappingStrategy);
+            CompiledBeanBinder.LineBinder<T> lineBinder = strategy::populateNewBean;
+            if (compiled && !binder.isHeaderBound()) {
+                lineBinder = binder.forPositions();
+            }
 
             if (isHeader(currentLine)) {
-                if (strategy instanceof DynamicColumnMappingStrategy) {
+                if (compiled && binder.isHeaderBound()) {
+                    lineBinder = binder.forHeader(currentLine);
+                } else if (strategy instanceof DynamicColumnMappingStrategy) {
                     ((DynamicColumnMappingStrategy<T>) strategy).setProcessedHeader(currentLine);
                 } else if (strategy instanceof HeaderColumnNameMappingStrategy) {
                     // Временный ридер для захвата заголовков из одной строки
@@ -66,26 +121,444 @@ public class CsvFileLoader<T> extends AbstractFileLoader<T> {
                 currentLine = csvReader.readNext();
             }
 
-            int importedCount = 0;
-            while (currentLine != null) {
-                if (currentLine.length > 0 && !(currentLine.length == 1 && currentLine[0].isEmpty())) {
-                    T bean = strategy.populateNewBean(currentLine);
-                    if (bean != null) {
-                        customFilters.put("importDTO", bean);
-                        customFilters.put("uploadId", uploadId);
-                        importMapper.insert(customFilters);
-                        importedCount++;
+            customFilters.put("uploadId", uploadId);
+            if (pipeline != null) {
+                progress.track((StageReader) source);
+                importPipelined(csvReader, currentLine, lineBinder, (StageReader) source, pipeline, progress);
+            } else {
+                parseBatches(csvReader, currentLine, lineBinder, progress, batch -> flushBatch(batch, customFilters, progress));
+            }
+
+            importMapper.finish(customFilters);
+            ImportStats stats = progress.complete();
+            return new ResultDTO(uploadId, stats.rowsInserted(), stats);
+
+        } catch (Exception exception) {
+            throw new StandardFault(exception);
+        }
+    }
+
+    /**
+     * Конвейерный импорт: стадия чтения (StageReader) декодирует поток в фоне, поток "import-parser" разбирает строки
+     * и собирает пакеты DTO, а текущий поток пишет их в БД. Пока пишется пакет N, разбирается пакет N + 1;
+     * заполненная очередь пакетов останавливает разбор (обратное давление).
+     * <p>
+     * Все вызовы ImportMapper остаются в текущем потоке: транзакция и сессия вызывающего кода не меняются.
+     */
+    private void importPipelined(RecordReader csvReader, String[] firstLine, CompiledBeanBinder.LineBinder<T> lineBinder,
+                                 StageReader stageReader, ImportPipelineConfig pipeline, ImportProgress progress) throws Exception {
+        BatchProducer producer = new BatchProducer(csvReader, firstLine, lineBinder, progress, pipeline.batchQueueDepth());
+        Thread parser = Thread.ofPlatform().name("import-parser").daemon().start(producer);
+
+        try {
+            while (true) {
+                long waitStart = System.nanoTime();
+                List<T> batch = producer.batches.take();
+                progress.writerIdle(System.nanoTime() - waitStart);
+                if (batch == producer.endOfData) break;
+                flushBatch(batch, customFilters, progress);
+            }
+        } catch (Exception exception) {
+            // Ошибка записи: останавливаем разбор, не дожидаясь конца файла
+            parser.interrupt();
+            stageReader.close();
+            throw exception;
+        } finally {
+            parser.join();
+        }
+        if (producer.failure instanceof Exception exception) throw exception;
+        if (producer.failure != null) throw new IllegalStateException("CSV parsing failed", producer.failure);
+    }
+
+    /**
+     * Стадия разбора конвейера: читает записи, связывает их с DTO и отдаёт пакеты в ограниченную очередь.
+     */
+    private class BatchProducer implements Runnable {
+        private final BlockingQueue<List<T>> batches;
+        private final List<T> endOfData = new ArrayList<>(0);
+        private final RecordReader csvReader;
+        private final String[] firstLine;
+        private final CompiledBeanBinder.LineBinder<T> lineBinder;
+        private final ImportProgress progress;
+        private volatile Throwable failure;
+
+        BatchProducer(RecordReader csvReader, String[] firstLine, CompiledBeanBinder.LineBinder<T> lineBinder, ImportProgress progress, int queueDepth) {
+            this.batches = new ArrayBlockingQueue<>(queueDepth);
+            this.csvReader = csvReader;
+            this.firstLine = firstLine;
+            this.lineBinder = lineBinder;
+            this.progress = progress;
+        }
+
+        @Override
+        public void run() {
+            try {
+                parseBatches(csvReader, firstLine, lineBinder, progress, batches::put);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable throwable) {
+                failure = throwable;
+            } finally {
+                try {
+                    batches.put(endOfData);
+                } catch (InterruptedException exception) {
+                    // Запись уже остановлена и очередь не читает
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Получатель готовых пакетов; пакет переходит в его владение.
+     */
+    @FunctionalInterface
+    private interface BatchSink<T> {
+        void accept(List<T> batch) throws Exception;
+    }
+
+    /**
+     * Разбирает записи начиная с firstLine в пакеты DTO размера batchSize.
+     * Время разбора и связывания учитывается в progress по каждому пакету; время внутри sink не учитывается.
+     */
+    private void parseBatches(RecordReader csvReader, String[] firstLine, CompiledBeanBinder.LineBinder<T> lineBinder,
+                              ImportProgress progress, BatchSink<T> sink) throws Exception {
+        int batchSize = getBatchSize();
+        List<T> batch = new ArrayList<>(batchSize);
+        String[] currentLine = firstLine;
+        long rows = 0;
+        long parseNanos = 0;
+        long bindNanos = 0;
+        long mark = System.nanoTime();
+        while (currentLine != null) {
+            if (!isEmptyLine(currentLine)) {
+                rows++;
+                T bean = lineBinder.bind(currentLine);
+                long bound = System.nanoTime();
+                bindNanos += bound - mark;
+                mark = bound;
+                if (bean != null) {
+                    batch.add(bean);
+                    if (batch.size() >= batchSize) {
+                        progress.parsed(rows, parseNanos, bindNanos);
+                        rows = parseNanos = bindNanos = 0;
+                        sink.accept(batch);
+                        batch = new ArrayList<>(batchSize);
+                        mark = System.nanoTime();
                     }
                 }
-                currentLine = csvReader.readNext();
             }
+            currentLine = csvReader.readNext();
+            long read = System.nanoTime();
+            parseNanos += read - mark;
+            mark = read;
+        }
+        progress.parsed(rows, parseNanos, bindNanos);
+        if (!batch.isEmpty()) sink.accept(batch);
+    }
 
-            importMapper.finish(customFilters);
-            return new ResultDTO(uploadId, importedCount);
+    /**
+     * Импорт файла с диска с произвольным доступом: параллельный разбор или импорт с точками возобновления.
+     * <p>
+     * Параллельный режим (customFilters["parseParallelism"] &gt; 1): файл режется на куски по ~PARALLEL_CHUNK_SIZE байт,
+     * выровненные на границы записей с учётом кавычек, куски разбираются и связываются с DTO на пуле потоков,
+     * а вставка идёт в текущем потоке строго по порядку кусков, поэтому порядок строк и count совпадают
+     * с последовательным импортом. В работе не больше 2 * parallelism кусков.
+     * <p>
+     * Режим с точками возобновления (customFilters["checkpointStore"]) имеет приоритет над параллельным,
+     * см. {@link #importCheckpointed}.
+     * <p>
+     * Строки разбирает CsvTokenizer, поэтому параллельный разбор включается только при csvParser = BUILTIN:
+     * с opencsv (по умолчанию) значения с обратным слэшем и кавычками разбирались бы иначе, чем при
+     * последовательном импорте. Точки возобновления с opencsv отклоняются (IllegalStateException). Кроме того, режимы доступны для DTO со скомпилированным binder'ом
+     * (не DynamicColumn) и кодировок, совместимых с ASCII; иначе файл импортируется последовательно,
+     * а возобновление невозможно.
+     */
+    @Override
+    public ResultDTO importFile(Path path, String name, long size, String entity, Long userId) {
+        ImportProgress progress = ImportProgress.start(name, customFilters);
+        Integer parallelism = StandardParam.PARSE_PARALLELISM.getFrom(customFilters);
+        CheckpointStore checkpoints = StandardParam.CHECKPOINT_STORE.getFrom(customFilters);
+        Long resumeUploadId = StandardParam.RESUME_UPLOAD_ID.getFrom(customFilters);
+        if (resumeUploadId != null && checkpoints == null) {
+            throw new IllegalStateException("Checkpoint store is not configured, upload " + resumeUploadId + " cannot be resumed");
+        }
+        if (checkpoints != null && !importMapper.isBatchCommitSupported()) {
+            throw new IllegalStateException("Checkpoints require an ImportMapper that commits each batch (isBatchCommitSupported)");
+        }
+        boolean builtinParser = StandardParam.CSV_PARSER.getFrom(customFilters) == EnumCsvParser.BUILTIN;
+        if (checkpoints != null && !builtinParser) {
+            throw new IllegalStateException("Checkpoints require csvParser BUILTIN: offsets follow CsvTokenizer records");
+        }
+        boolean parallel = parallelism != null && parallelism > 1;
+        if (!parallel && checkpoints == null) {
+            return super.importFile(path, name, size, entity, userId);
+        }
+        if (!builtinParser) {
+            return sequentialFallback(path, name, size, entity, userId, resumeUploadId);
+        }
+        CompiledBeanBinder<T> binder = CompiledBeanBinder.of(importDTOClass);
+        if (!binder.isSupported() || importDTOClass.isAnnotationPresent(DynamicColumn.class)) {
+            return sequentialFallback(path, name, size, entity, userId, resumeUploadId);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Charset charset = EncodingDetector.getCharsetHint(customFilters);
+            if (charset == null) {
+                try (InputStream probe = new BufferedInputStream(Files.newInputStream(path))) {
+                    charset = EncodingDetector.detectCharset(probe);
+                }
+            }
+            if (!isAsciiCompatible(charset)) {
+                return sequentialFallback(path, name, size, entity, userId, resumeUploadId);
+            }
 
+            long dataStart = hasUtf8Bom(channel) ? 3 : 0;
+            CsvRecordBoundaryScanner scanner = new CsvRecordBoundaryScanner(channel, (byte) Constant.SEPARATOR, dataStart);
+            long firstRecordEnd = scanner.nextBoundary(dataStart + 1);
+            String[] firstLine = readFirstRecord(channel, dataStart, firstRecordEnd, charset);
+            if (firstLine == null) {
+                return new ResultDTO(0L, 0, progress.complete());
+            }
+            boolean header = isHeader(firstLine);
+            if (!header && binder.isHeaderBound()) {
+                // Привязка по именам без строки заголовка — поведение opencsv
+                return sequentialFallback(path, name, size, entity, userId, resumeUploadId);
+            }
+            CompiledBeanBinder.LineBinder<T> lineBinder = header && binder.isHeaderBound() ? binder.forHeader(firstLine) : binder.forPositions();
+            long start = header ? firstRecordEnd : dataStart;
+
+            if (checkpoints != null) {
+                return importCheckpointed(channel, start, charset, lineBinder, checkpoints, resumeUploadId, name, entity, userId, progress);
+            }
+
+            long uploadId = insertHeader(name, userId, size, entity);
+            progress.read(start);
+            importChunks(channel, scanner, start, charset, lineBinder, parallelism, progress);
+            importMapper.finish(customFilters);
+            ImportStats stats = progress.complete();
+            return new ResultDTO(uploadId, stats.rowsInserted(), stats);
+        } catch (StandardFault exception) {
+            throw exception;
         } catch (Exception exception) {
-            throw new com.puls.centralpricing.common.exception.StandardFault(exception);
+            throw new StandardFault(exception);
+        }
+    }
+
+    private ResultDTO sequentialFallback(Path path, String name, long size, String entity, Long userId, Long resumeUploadId) {
+        if (resumeUploadId != null) {
+            throw new IllegalStateException("Upload " + resumeUploadId + " cannot be resumed: file format requires sequential import");
         }
+        return super.importFile(path, name, size, entity, userId);
+    }
+
+    private long insertHeader(String name, Long userId, long size, String entity) {
+        UploadDTO uploadDTO = new UploadDTO(name, userId, LocalDate.now(), size, entity);
+        importMapper.insertHeader(uploadDTO);
+        long uploadId = uploadDTO.getId() != null ? uploadDTO.getId() : 0L;
+        customFilters.put("uploadId", uploadId);
+        return uploadId;
+    }
+
+    /**
+     * Импорт с точками возобновления: после каждого пакета, зафиксированного ImportMapper.commitBatch,
+     * в хранилище сохраняются смещение следующей строки и число зафиксированных строк. Смещения записей даёт CsvRecordBoundaryScanner по тем же правилам,
+     * что и CsvTokenizer, поэтому N-я запись разборщика совпадает с N-й границей сканера.
+     * <p>
+     * При resumeUploadId заголовок загрузки не создаётся заново: чтение начинается со смещения точки,
+     * а count в результате включает строки, записанные до сбоя. После успешного импорта точка удаляется.
+     */
+    private ResultDTO importCheckpointed(FileChannel channel, long start, Charset charset, CompiledBeanBinder.LineBinder<T> lineBinder,
+                                         CheckpointStore checkpoints, Long resumeUploadId, String name, String entity, Long userId,
+                                         ImportProgress progress) throws Exception {
+        long fileSize = channel.size();
+        long uploadId;
+        long committedRows = 0;
+        if (resumeUploadId != null) {
+            ImportCheckpoint checkpoint = checkpoints.load(resumeUploadId);
+            if (checkpoint == null) {
+                throw new IllegalStateException("No checkpoint for upload " + resumeUploadId);
+            }
+            if (checkpoint.fileSize() != fileSize || checkpoint.byteOffset() > fileSize) {
+                throw new IllegalStateException("File " + name + " differs from the file of upload " + resumeUploadId);
+            }
+            uploadId = checkpoint.uploadId();
+            start = checkpoint.byteOffset();
+            committedRows = checkpoint.rowNumber();
+            customFilters.put("uploadId", uploadId);
+        } else {
+            uploadId = insertHeader(name, userId, fileSize, entity);
+        }
+        progress.read(start);
+
+        CheckpointedRecordReader records = new CheckpointedRecordReader(channel, start, charset);
+        long baseRows = committedRows;
+        AtomicLong insertedRows = new AtomicLong();
+        try (records) {
+            parseBatches(records, records.readNext(), lineBinder, progress, batch -> {
+                int rows = batch.size();
+                flushBatch(batch, customFilters, progress);
+                importMapper.commitBatch(customFilters);
+                long total = baseRows + insertedRows.addAndGet(rows);
+                checkpoints.save(new ImportCheckpoint(uploadId, name, fileSize, records.getOffset(), total));
+            });
+        }
+        importMapper.finish(customFilters);
+        checkpoints.remove(uploadId);
+        return new ResultDTO(uploadId, baseRows + insertedRows.get(), progress.complete());
+    }
+
+    /**
+     * Записи CsvTokenizer вместе со смещением конца последней прочитанной записи.
+     */
+    private static class CheckpointedRecordReader implements RecordReader {
+        private final CsvTokenizer tokenizer;
+        private final CsvRecordBoundaryScanner scanner;
+        private long offset;
+
+        CheckpointedRecordReader(FileChannel channel, long start, Charset charset) throws IOException {
+            this.scanner = new CsvRecordBoundaryScanner(channel, (byte) Constant.SEPARATOR, start);
+            this.tokenizer = new CsvTokenizer(new PooledDecodingReader(Channels.newInputStream(channel.position(start)), charset, null), Constant.SEPARATOR);
+            this.offset = start;
+        }
+
+        @Override
+        public String[] readNext() throws IOException {
+            String[] record = tokenizer.readNext();
+            if (record != null) offset = scanner.nextBoundary(offset + 1);
+            return record;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public void close() {
+            // Канал закрывает владелец
+        }
+    }
+
+    private void importChunks(FileChannel channel, CsvRecordBoundaryScanner scanner, long start, Charset charset,
+                              CompiledBeanBinder.LineBinder<T> lineBinder, int parallelism, ImportProgress progress) throws Exception {
+        long fileSize = channel.size();
+        int batchSize = getBatchSize();
+        List<T> batch = new ArrayList<>(batchSize);
+        Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            try {
+                long chunkStart = start;
+                while (chunkStart < fileSize || !inFlight.isEmpty()) {
+                    while (chunkStart < fileSize && inFlight.size() < parallelism * 2) {
+                        long from = chunkStart;
+                        long to = scanner.nextBoundary(from + getParallelChunkSize());
+                        inFlight.add(executor.submit(() -> parseChunk(channel, from, to, charset, lineBinder, progress)));
+                        chunkStart = to;
+                    }
+                    for (T bean : inFlight.poll().get()) {
+                        batch.add(bean);
+                        if (batch.size() >= batchSize) {
+                            flushBatch(batch, customFilters, progress);
+                        }
+                    }
+                }
+                flushBatch(batch, customFilters, progress);
+            } catch (Exception exception) {
+                inFlight.forEach(future -> future.cancel(true));
+                throw (exception instanceof ExecutionException && exception.getCause() instanceof Exception cause) ? cause : exception;
+            }
+        }
+    }
+
+    private List<T> parseChunk(FileChannel channel, long start, long end, Charset charset,
+                               CompiledBeanBinder.LineBinder<T> lineBinder, ImportProgress progress) throws Exception {
+        List<T> beans = new ArrayList<>();
+        long rows = 0;
+        long parseNanos = 0;
+        long bindNanos = 0;
+        long mark = System.nanoTime();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new PooledDecodingReader(readBytes(channel, start, end), charset, null), Constant.SEPARATOR)) {
+            String[] line;
+            while ((line = tokenizer.readNext()) != null) {
+                long read = System.nanoTime();
+                parseNanos += read - mark;
+                mark = read;
+                if (isEmptyLine(line)) continue;
+                rows++;
+                T bean = lineBinder.bind(line);
+                if (bean != null) beans.add(bean);
+                long bound = System.nanoTime();
+                bindNanos += bound - mark;
+                mark = bound;
+            }
+        }
+        progress.read(end - start);
+        progress.parsed(rows, parseNanos + System.nanoTime() - mark, bindNanos);
+        return beans;
+    }
+
+    /**
+     * Примерный размер куска файла в параллельном режиме, байт.
+     */
+    protected long getParallelChunkSize() {
+        return PARALLEL_CHUNK_SIZE;
+    }
+
+    private String[] readFirstRecord(FileChannel channel, long start, long end, Charset charset) throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new PooledDecodingReader(readBytes(channel, start, end), charset, null), Constant.SEPARATOR)) {
+            String[] record = tokenizer.readNext();
+            return (record != null) ? record.clone() : null;
+        }
+    }
+
+    private static InputStream readBytes(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(end - start));
+        // Позиционное чтение потокобезопасно, канал общий для всех кусков
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, start + bytes.position()) < 0) break;
+        }
+        return new ByteArrayInputStream(bytes.array(), 0, bytes.position());
+    }
+
+    private static boolean hasUtf8Bom(FileChannel channel) throws IOException {
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        channel.read(bom, 0);
+        return bom.position() == 3 && bom.get(0) == (byte) 0xEF && bom.get(1) == (byte) 0xBB && bom.get(2) == (byte) 0xBF;
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) return true;
+        return charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1;
+    }
+
+    private boolean isEmptyLine(String[] line) {
+        return line.length == 0 || (line.length == 1 && line[0].isEmpty());
+    }
+
+    /**
+     * Источник записей CSV: opencsv или встроенный CsvTokenizer.
+     */
+    private interface RecordReader extends AutoCloseable {
+        String[] readNext() throws Exception;
+    }
+
+    private RecordReader openRecordReader(Reader streamReader) {
+        EnumCsvParser parser = StandardParam.CSV_PARSER.getFrom(customFilters);
+        if (parser == EnumCsvParser.BUILTIN) {
+            CsvTokenizer tokenizer = new CsvTokenizer(streamReader, Constant.SEPARATOR);
+            return new RecordReader() {
+                @Override public String[] readNext() throws Exception { return tokenizer.readNext(); }
+                @Override public void close() throws Exception { tokenizer.close(); }
+            };
+        }
+        CSVReader csvReader = new CSVReaderBuilder(streamReader)
+                .withCSVParser(new CSVParserBuilder().withSeparator(Constant.SEPARATOR).build())
+                .build();
+        return new RecordReader() {
+            @Override public String[] readNext() throws Exception { return csvReader.readNext(); }
+            @Override public void close() throws Exception { csvReader.close(); }
+        };
     }
 
     private boolean isHeader(String[] line) {
@@ -93,16 +566,18 @@ public class CsvFileLoader<T> extends AbstractFileLoader<T> {
         String firstColumn = line[0];
         if (firstColumn == null) return false;
 
-        firstColumn = firstColumn.replace("\uFEFF", "").trim();
-        // Если первая колонка — это число, скорее всего это данные, а не заголовок
-        if (firstColumn.matches("^\\d+$")) return false;
-
-        try {
-            Long.parseLong(firstColumn);
-            return false;
-        } catch (NumberFormatException exception) {
-            return true;
+        // Если первая колонка — целое число (со знаком или без, BOM и пробелы игнорируются), это данные, а не заголовок
+        int start = 0;
+        int end = firstColumn.length();
+        while (start < end && (firstColumn.charAt(start) == '\uFEFF' || Character.isWhitespace(firstColumn.charAt(start)))) start++;
+        while (end > start && Character.isWhitespace(firstColumn.charAt(end - 1))) end--;
+        if (start < end && (firstColumn.charAt(start) == '-' || firstColumn.charAt(start) == '+')) start++;
+        if (start == end) return true;
+        for (int i = start; i < end; i++) {
+            char value = firstColumn.charAt(i);
+            if (value < '0' || value > '9') return true;
         }
+        return false;
     }
 
     private MappingStrategy<T> resolveStrategy(Class<T> dtoClass) {
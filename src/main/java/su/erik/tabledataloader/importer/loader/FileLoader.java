@@ -1,9 +1,26 @@
 package su.erik.tabledataloader.importer.loader;
 
+import com.puls.centralpricing.common.exception.StandardFault;
 import su.erik.tabledataloader.importer.model.ResultDTO;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public interface FileLoader {
     ResultDTO importFile(InputStream inputStream, String name, long size, String entity, Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Импорт файла с локального диска.
+     * По умолчанию открывает поток и вызывает потоковый вариант; загрузчики, которым нужен произвольный доступ
+     * (например, к каталогу ZIP-архива), переопределяют метод.
+     */
+    default ResultDTO importFile(Path path, String name, long size, String entity, Long userId) {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return importFile(inputStream, name, size, entity, userId);
+        } catch (IOException exception) {
+            throw new StandardFault(exception);
+        }
+    }
+}
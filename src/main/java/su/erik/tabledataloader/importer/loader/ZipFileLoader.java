@@ -3,16 +3,40 @@ package su.erik.tabledataloader.importer.loader;
 import com.puls.centralpricing.common.exception.StandardFault;
 import su.erik.tabledataloader.LoaderRegistry;
 import su.erik.tabledataloader.archive.AbstractIterator;
+import su.erik.tabledataloader.archive.ArchiveIterator;
 import su.erik.tabledataloader.archive.EntryModel;
 import su.erik.tabledataloader.archive.ZipArchiveIterator;
+import su.erik.tabledataloader.archive.ZipFileArchiveIterator;
+import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.importer.ImportListener;
 import su.erik.tabledataloader.importer.ImportMapper;
+import su.erik.tabledataloader.importer.model.ImportStats;
 import su.erik.tabledataloader.importer.model.ResultDTO;
 
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Загрузчик архивов (zip, tar, tar.gz, gz): каждый поддерживаемый файл архива импортируется загрузчиком по его расширению.
+ * <p>
+ * При customFilters["archiveParallelism"] &gt; 1 файлы импортируются параллельно на виртуальных потоках,
+ * одновременно не более archiveParallelism штук.
+ * В этом режиме ImportMapper должен быть потокобезопасным.
+ */
 public class ZipFileLoader implements FileLoader {
 
     private final Class<?> dtoClass;
@@ -26,47 +50,198 @@ public class ZipFileLoader implements FileLoader {
     }
 
     @Override
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public ResultDTO importFile(InputStream inputStream, String name, long size, String entity, Long userId) {
-        long totalCount = 0;
-        long lastUploadId = 0;
+        LoaderRegistry registry = getRegistry();
+        try {
+            return reportArchive(name, importEntries(openArchive(inputStream, name), true, registry, entity, userId));
+        } catch (IOException exception) {
+            throw new StandardFault(exception);
+        }
+    }
 
-        LoaderRegistry registry = (LoaderRegistry) customFilters.get("loaderRegistry");
-        if (registry == null) {
-            throw new IllegalStateException("LoaderRegistry is missing in context (customFilters)");
+    /**
+     * ZIP-архив на диске открывается через ZipFile (tar и gz читаются потоком): элементы с неподдерживаемым расширением пропускаются
+     * по центральному каталогу без распаковки, а параллельный режим читает элементы напрямую, без временных файлов.
+     */
+    @Override
+    public ResultDTO importFile(Path path, String name, long size, String entity, Long userId) {
+        if (name != null && !name.toLowerCase().endsWith(Constant.ZIP) && ArchiveIterator.isSupported(name)) {
+            return FileLoader.super.importFile(path, name, size, entity, userId);
+        }
+        LoaderRegistry registry = getRegistry();
+        try {
+            return reportArchive(name, importEntries(new ZipFileArchiveIterator(path, entryName -> isSupported(entryName, registry)), false, registry, entity, userId));
+        } catch (IOException exception) {
+            throw new StandardFault(exception);
+        }
+    }
+
+    /**
+     * Сводка по архиву для наблюдателя; файлы архива отчитываются сами через свои загрузчики.
+     */
+    private ResultDTO reportArchive(String name, ResultDTO result) {
+        ImportListener listener = StandardParam.IMPORT_LISTENER.getFrom(customFilters);
+        if (listener != null && result.stats() != null) {
+            listener.onComplete(name, result.stats());
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ResultDTO importEntries(AbstractIterator archiveIterator, boolean spoolEntries, LoaderRegistry registry, String entity, Long userId) throws IOException {
+        int parallelism = getParallelism();
+        if (parallelism > 1) {
+            return importParallel(archiveIterator, spoolEntries, entity, userId, registry, parallelism);
         }
 
-        try (AbstractIterator iterator = new ZipArchiveIterator(inputStream)) {
+        long totalCount = 0;
+        long lastUploadId = 0;
+        ImportStats stats = null;
+
+        try (AbstractIterator iterator = archiveIterator) {
             while (iterator.hasNext()) {
                 EntryModel entry = iterator.next();
 
                 String entryName = entry.name();
-                if (entryName.endsWith("/") || entryName.endsWith("\\")) {
+                if (!isSupported(entryName, registry)) {
                     continue;
                 }
 
-                String extension = getExtension(entryName);
+                FileLoader loader = registry.createLoader(
+                        getExtension(entryName),
+                        (Class) dtoClass,
+                        (ImportMapper) mapper,
+                        customFilters
+                );
+
+                ResultDTO entryResult = loader.importFile(entry.content(), entryName, entry.size(), entity, userId);
+                totalCount += entryResult.count();
+                stats = ImportStats.merge(stats, entryResult.stats());
+                if (entryResult.uploadId() != null && entryResult.uploadId() > 0) {
+                    lastUploadId = entryResult.uploadId();
+                }
+            }
+        }
+
+        return new ResultDTO(lastUploadId, totalCount, stats);
+    }
 
-                if (registry.getLoaderClass(extension) != null) {
-                    FileLoader loader = registry.createLoader(
-                            extension,
-                            (Class) dtoClass,
-                            (ImportMapper) mapper,
-                            customFilters
-                    );
+    /**
+     * Импорт каждого файла идёт в отдельной задаче со своей копией customFilters.
+     * Если архив читается последовательно (spoolEntries), файлы распаковываются во временные файлы.
+     * Семафор ограничивает и число одновременных импортов, и число распакованных на диск файлов.
+     * Итог агрегируется в порядке файлов в архиве.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ResultDTO importParallel(AbstractIterator archiveIterator, boolean spoolEntries, String entity, Long userId, LoaderRegistry registry, int parallelism) {
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<ResultDTO>> futures = new ArrayList<>();
+        List<Path> tempFiles = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try (AbstractIterator iterator = archiveIterator) {
+                while (iterator.hasNext()) {
+                    EntryModel entry = iterator.next();
+
+                    String entryName = entry.name();
+                    if (!isSupported(entryName, registry)) {
+                        continue;
+                    }
+                    String extension = getExtension(entryName);
 
-                    ResultDTO entryResult = loader.importFile(entry.content(), entryName, entry.size(), entity, userId);
+                    permits.acquire();
+                    Path tempFile = null;
+                    if (spoolEntries) {
+                        try {
+                            tempFile = Files.createTempFile(Constant.TEMP_ARCHIVE_NAME, "." + extension);
+                            tempFiles.add(tempFile);
+                            Files.copy(entry.content(), tempFile, StandardCopyOption.REPLACE_EXISTING);
+                        } catch (IOException exception) {
+                            permits.release();
+                            throw exception;
+                        }
+                    }
+
+                    Path entryFile = tempFile;
+                    Map<String, Object> entryFilters = new HashMap<>(customFilters);
+                    long entrySize = entry.size();
+                    futures.add(executor.submit(() -> {
+                        try (InputStream entryStream = (entryFile != null) ? Files.newInputStream(entryFile) : entry.content()) {
+                            FileLoader loader = registry.createLoader(extension, (Class) dtoClass, (ImportMapper) mapper, entryFilters);
+                            return loader.importFile(entryStream, entryName, entrySize, entity, userId);
+                        } finally {
+                            if (entryFile != null) Files.deleteIfExists(entryFile);
+                            permits.release();
+                        }
+                    }));
+                }
+
+                long totalCount = 0;
+                long lastUploadId = 0;
+                ImportStats stats = null;
+                for (Future<ResultDTO> future : futures) {
+                    ResultDTO entryResult = future.get();
                     totalCount += entryResult.count();
+                    stats = ImportStats.merge(stats, entryResult.stats());
                     if (entryResult.uploadId() != null && entryResult.uploadId() > 0) {
                         lastUploadId = entryResult.uploadId();
                     }
                 }
+                return new ResultDTO(lastUploadId, totalCount, stats);
+            } catch (Exception exception) {
+                // Отменяем оставшиеся задачи до закрытия executor'а, иначе close() дождётся их всех
+                futures.forEach(future -> future.cancel(true));
+                throw exception;
             }
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) throw cause;
+            throw new StandardFault(exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new StandardFault(exception);
         } catch (IOException exception) {
             throw new StandardFault(exception);
+        } finally {
+            // Задачи, отменённые до старта, свои временные файлы не удаляют
+            for (Path tempFile : tempFiles) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException _) {
+                    // Файл во временном каталоге, удалится при очистке
+                }
+            }
         }
+    }
+
+    /**
+     * Тип архива определяется по имени; без известного расширения архив считается ZIP.
+     */
+    private AbstractIterator openArchive(InputStream inputStream, String name) throws IOException {
+        return ArchiveIterator.isSupported(name) ? ArchiveIterator.open(inputStream, name) : new ZipArchiveIterator(inputStream);
+    }
+
+    /**
+     * Реестр, создавший загрузчик (customFilters["loaderRegistry"], см. LoaderRegistry.createLoader).
+     */
+    private LoaderRegistry getRegistry() {
+        LoaderRegistry registry = StandardParam.LOADER_REGISTRY.getFrom(customFilters);
+        if (registry == null) {
+            throw new IllegalStateException("LoaderRegistry is missing in context (customFilters)");
+        }
+        return registry;
+    }
+
+    private boolean isSupported(String entryName, LoaderRegistry registry) {
+        return !isDirectory(entryName) && registry.getLoaderClass(getExtension(entryName)) != null;
+    }
+
+    private int getParallelism() {
+        Integer parallelism = StandardParam.ARCHIVE_PARALLELISM.getFrom(customFilters);
+        return (parallelism != null) ? parallelism : 1;
+    }
 
-        return new ResultDTO(lastUploadId, totalCount);
+    private boolean isDirectory(String entryName) {
+        return entryName.endsWith("/") || entryName.endsWith("\\");
     }
 
     private String getExtension(String fileName) {
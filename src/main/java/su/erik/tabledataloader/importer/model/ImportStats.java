@@ -0,0 +1,48 @@
+package su.erik.tabledataloader.importer.model;
+
+import java.io.Serializable;
+
+/**
+ * Сводка импорта файла: объёмы и время стадий, наносекунды.
+ *
+ * @param bytesRead       Прочитано байт входного потока (для архива — распакованных).
+ * @param rowsParsed      Разобрано непустых строк.
+ * @param rowsInserted    Передано в БД строк.
+ * @param batches         Число записанных пакетов.
+ * @param elapsedNanos    Время импорта целиком.
+ * @param readNanos       Чтение и декодирование в отдельной стадии конвейера; без конвейера входит в parseNanos.
+ * @param parseNanos      Разбор CSV (без ожидания очередей конвейера).
+ * @param bindNanos       Связывание строк с DTO.
+ * @param writeNanos      Вставка пакетов в БД (insertBatch + flush).
+ * @param writerIdleNanos Ожидание записью следующего пакета в конвейере: если велико, узкое место — разбор, а не БД.
+ */
+public record ImportStats(long bytesRead, long rowsParsed, long rowsInserted, long batches, long elapsedNanos,
+                          long readNanos, long parseNanos, long bindNanos, long writeNanos, long writerIdleNanos) implements Serializable {
+
+    /**
+     * Скорость вставки, строк в секунду.
+     */
+    public double rowsPerSecond() {
+        return elapsedNanos > 0 ? rowsInserted * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    /**
+     * Сумма статистик (например, по файлам архива). null считается пустой статистикой.
+     * При параллельном импорте архива elapsedNanos — сумма по файлам, а не время по часам.
+     */
+    public static ImportStats merge(ImportStats first, ImportStats second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        return new ImportStats(
+                first.bytesRead + second.bytesRead,
+                first.rowsParsed + second.rowsParsed,
+                first.rowsInserted + second.rowsInserted,
+                first.batches + second.batches,
+                first.elapsedNanos + second.elapsedNanos,
+                first.readNanos + second.readNanos,
+                first.parseNanos + second.parseNanos,
+                first.bindNanos + second.bindNanos,
+                first.writeNanos + second.writeNanos,
+                first.writerIdleNanos + second.writerIdleNanos);
+    }
+}
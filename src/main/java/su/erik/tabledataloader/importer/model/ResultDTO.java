@@ -2,5 +2,14 @@ package su.erik.tabledataloader.importer.model;
 
 import java.io.Serializable;
 
-public record ResultDTO(Long uploadId, long count) implements Serializable {
+/**
+ * Результат импорта.
+ *
+ * @param stats Сводка импорта (объём, строки, время стадий); null, если загрузчик её не собирает.
+ */
+public record ResultDTO(Long uploadId, long count, ImportStats stats) implements Serializable {
+
+    public ResultDTO(Long uploadId, long count) {
+        this(uploadId, count, null);
+    }
 }
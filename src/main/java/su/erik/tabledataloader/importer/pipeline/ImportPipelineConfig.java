@@ -0,0 +1,22 @@
+package su.erik.tabledataloader.importer.pipeline;
+
+import java.io.Serializable;
+
+/**
+ * Настройки конвейерного импорта: чтение/декодирование, разбор/связывание и запись в БД идут в разных потоках,
+ * стадии связаны ограниченными очередями (обратное давление).
+ *
+ * @param readChunkSize   Размер блока символов, который стадия чтения передаёт разбору.
+ * @param readQueueDepth  Сколько прочитанных блоков может ждать разбора.
+ * @param batchQueueDepth Сколько готовых пакетов может ждать записи в БД.
+ */
+public record ImportPipelineConfig(int readChunkSize, int readQueueDepth, int batchQueueDepth) implements Serializable {
+
+    public static final ImportPipelineConfig DEFAULT = new ImportPipelineConfig(64 * 1024, 4, 4);
+
+    public ImportPipelineConfig {
+        if (readChunkSize <= 0 || readQueueDepth <= 0 || batchQueueDepth <= 0) {
+            throw new IllegalArgumentException("Pipeline sizes must be positive");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package su.erik.tabledataloader.importer.pipeline;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Стадия чтения конвейера: фоновый поток читает и декодирует источник в кольцо из readQueueDepth + 1
+ * переиспользуемых блоков, а разбор забирает их через обычный интерфейс Reader.
+ * <p>
+ * Стадии конвейера работают на платформенных потоках: разбор блокируется внутри synchronized-кода ридеров
+ * и закрепил бы виртуальный поток на носителе, оставив стадию чтения без носителя.
+ */
+public class StageReader extends Reader {
+
+    private static final CharBuffer END_OF_STREAM = CharBuffer.allocate(0);
+
+    private final Reader source;
+    private final BlockingQueue<CharBuffer> freeBuffers;
+    private final BlockingQueue<CharBuffer> filledBuffers;
+    private final AtomicLong readNanos = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final Thread readerThread;
+    private volatile Throwable failure;
+    private volatile boolean closed = false;
+    private CharBuffer current;
+
+    public StageReader(Reader source, ImportPipelineConfig config) {
+        this.source = source;
+        this.freeBuffers = new ArrayBlockingQueue<>(config.readQueueDepth() + 1);
+        this.filledBuffers = new ArrayBlockingQueue<>(config.readQueueDepth() + 2);
+        for (int i = 0; i <= config.readQueueDepth(); i++) {
+            freeBuffers.add(CharBuffer.allocate(config.readChunkSize()));
+        }
+        this.readerThread = Thread.ofPlatform().name("import-reader").daemon().start(this::produce);
+    }
+
+    private void produce() {
+        try {
+            while (!closed) {
+                CharBuffer buffer = freeBuffers.take();
+                buffer.clear();
+                long start = System.nanoTime();
+                int read = source.read(buffer);
+                readNanos.addAndGet(System.nanoTime() - start);
+                if (read < 0) break;
+                buffer.flip();
+                filledBuffers.put(buffer);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable throwable) {
+            failure = throwable;
+        } finally {
+            filledBuffers.offer(END_OF_STREAM);
+        }
+    }
+
+    @Override
+    public int read(char[] target, int offset, int length) throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        if (length == 0) return 0;
+        while (current == null || !current.hasRemaining()) {
+            if (current == END_OF_STREAM) return -1;
+            if (current != null) freeBuffers.offer(current);
+            try {
+                long start = System.nanoTime();
+                current = filledBuffers.take();
+                waitNanos.addAndGet(System.nanoTime() - start);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for input");
+            }
+            if (current == END_OF_STREAM && failure != null) {
+                throw new IOException("Error while reading import data", failure);
+            }
+        }
+        int count = Math.min(length, current.remaining());
+        current.get(target, offset, count);
+        return count;
+    }
+
+    /**
+     * Время чтения и декодирования источника.
+     */
+    public long getReadNanos() {
+        return readNanos.get();
+    }
+
+    /**
+     * Время, которое потребитель провёл в ожидании данных.
+     */
+    public long getWaitNanos() {
+        return waitNanos.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        readerThread.interrupt();
+        source.close();
+    }
+}
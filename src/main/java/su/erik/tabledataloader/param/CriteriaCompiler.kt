@@ -0,0 +1,211 @@
+package su.erik.tabledataloader.param
+
+import su.erik.tabledataloader.config.Constant
+import su.erik.tabledataloader.config.EnumInListStrategy
+import su.erik.tabledataloader.param.Filter.SqlSuffix
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Условия, поиск по колонкам и сортировка MapParam, отрисованные в SQL.
+ *
+ * where — условие с плейсхолдерами "?" для JDBC (без ведущего AND, пустая строка при отсутствии условий),
+ * mybatisWhere — то же условие с #{compiled.parameters[i]} для фрагмента Common.compiledCriteria,
+ * orderBy — "ORDER BY ..." или пустая строка. Строки SQL общие для запросов одной формы.
+ */
+class CompiledQuery internal constructor(
+    val where: String,
+    val mybatisWhere: String,
+    val orderBy: String,
+    val parameters: Array<Any?>
+)
+
+/**
+ * Компилятор MapParam в SQL с позиционными параметрами.
+ *
+ * Отрисованный SQL кэшируется по форме запроса: скобки, поля, операторы, размер IN и связки.
+ * Запросы одной формы с разными значениями получают тот же текст SQL и попадают в кэш
+ * подготовленных выражений JDBC. Результат совпадает с фрагментом searchCriteria + order.
+ *
+ * Списки IN / NOT IN дополняются повтором последнего значения до степени двойки. Списки длиннее
+ * Constant.MAX_IN_LIST_SIZE передаются по стратегии MapParam.inListStrategy: при CHUNKED до степени двойки
+ * дополняется и число порций, поэтому число форм растёт логарифмически, а не линейно с длиной списка.
+ */
+object CriteriaCompiler {
+
+    /** Имя, под которым фрагмент Common.compiledCriteria связывает результат compile(). */
+    const val BINDING = "compiled"
+
+    /** Имя переменной bind фрагмента Common.masterList (MapParam.compileMasterList). */
+    const val MASTER_LIST_BINDING = "masterIn"
+
+    private const val SEPARATOR = '\u0000'
+
+    private val templates = ConcurrentHashMap<String, CompiledQuery>()
+
+    /**
+     * Раскладка одного списка: chunks порций по chunkSize параметров, либо один параметр-массив.
+     */
+    private data class InLayout(val strategy: EnumInListStrategy, val chunks: Int, val chunkSize: Int)
+
+    @JvmStatic
+    fun compile(mapParam: MapParam): CompiledQuery = compile(mapParam, BINDING)
+
+    /**
+     * Условие "field IN (...)" для фрагмента Common.masterList; binding — имя переменной bind в XML.
+     */
+    @JvmStatic
+    fun compileIn(field: String, values: List<*>, strategy: EnumInListStrategy, binding: String): CompiledQuery {
+        val mapParam = MapParam()
+        mapParam.inListStrategy = strategy
+        mapParam.criteria.add(Filter(field, Constant.IN, values))
+        return compile(mapParam, binding)
+    }
+
+    private fun compile(mapParam: MapParam, binding: String): CompiledQuery {
+        val columns = if (mapParam.keywordSearch != null) mapParam.columns else emptyList()
+        val strategy = mapParam.inListStrategy
+        val parameters = ArrayList<Any?>()
+        val layouts = ArrayList<InLayout>()
+        val shape = StringBuilder(binding).append(SEPARATOR)
+
+        for (filter in mapParam.criteria) {
+            shape.append(filter.lBracket).append(SEPARATOR).append(filter.field).append(SEPARATOR)
+                .append(filter.op).append(SEPARATOR)
+            val value = filter.value
+            if (filter.isList) {
+                val layout = bindList(value as List<*>, isInOperator(filter.op), strategy, parameters)
+                layouts.add(layout)
+                shape.append(layout.strategy.ordinal).append('L').append(layout.chunks).append('x').append(layout.chunkSize)
+            } else {
+                shape.append('V')
+                parameters.add(value)
+                if (filter.valueR != null) {
+                    shape.append('R')
+                    parameters.add(filter.valueR)
+                }
+            }
+            shape.append(SEPARATOR).append(filter.rBracket).append(SEPARATOR).append(filter.suffix.ordinal).append(SEPARATOR)
+        }
+        shape.append('|')
+        for (column in columns) {
+            shape.append(column.name).append(SEPARATOR).append(column.operator).append(SEPARATOR)
+            parameters.add(column.keywordSearch)
+        }
+        shape.append('|')
+        for (sort in mapParam.orderBy) {
+            shape.append(sort.sortBy).append(SEPARATOR).append(sort.sortOrder.name).append(SEPARATOR)
+        }
+
+        val key = shape.toString()
+        val template = templates[key] ?: render(mapParam, columns, layouts, binding).also {
+            if (templates.size >= Constant.COMPILED_QUERY_CACHE_MAX_SIZE) templates.clear()
+            templates[key] = it
+        }
+        return CompiledQuery(template.where, template.mybatisWhere, template.orderBy, parameters.toTypedArray())
+    }
+
+    /**
+     * Количество форм запросов в кэше.
+     */
+    @JvmStatic
+    fun cacheSize(): Int = templates.size
+
+    private fun isInOperator(op: String): Boolean = op.equals(Constant.IN, ignoreCase = true) || op.equals(Constant.NOT_IN, ignoreCase = true)
+
+    private fun bindList(values: List<*>, inOperator: Boolean, strategy: EnumInListStrategy, parameters: MutableList<Any?>): InLayout {
+        // Для прочих операторов со списком дополнение изменило бы смысл условия
+        if (!inOperator) {
+            parameters.addAll(values)
+            return InLayout(EnumInListStrategy.CHUNKED, 1, values.size)
+        }
+        val chunkSize = Constant.MAX_IN_LIST_SIZE
+        if (values.size <= chunkSize || strategy == EnumInListStrategy.CHUNKED) {
+            val size = if (values.size <= chunkSize) paddedSize(values.size) else chunkSize
+            val chunks = nextPowerOfTwo((values.size + size - 1) / size)
+            parameters.addAll(values)
+            repeat(chunks * size - values.size) { parameters.add(values.last()) }
+            return InLayout(EnumInListStrategy.CHUNKED, chunks, size)
+        }
+        parameters.add(toTypedArray(values))
+        return InLayout(EnumInListStrategy.ARRAY, 1, 1)
+    }
+
+    private fun paddedSize(size: Int): Int = minOf(nextPowerOfTwo(size), Constant.MAX_IN_LIST_SIZE)
+
+    private fun nextPowerOfTwo(value: Int): Int = if (value <= 1) 1 else Integer.highestOneBit(value - 1) shl 1
+
+    // Массив с типом элементов, чтобы ArrayTypeHandler / createArrayOf выбрали тип SQL (BIGINT, VARCHAR ...)
+    @Suppress("UNCHECKED_CAST")
+    private fun toTypedArray(values: List<*>): Array<Any?> {
+        val type = values.firstOrNull()?.javaClass
+        if (type == null || values.any { it == null || it.javaClass != type }) return values.toTypedArray()
+        val array = java.lang.reflect.Array.newInstance(type, values.size) as Array<Any?>
+        values.forEachIndexed { index, value -> array[index] = value }
+        return array
+    }
+
+    private fun render(mapParam: MapParam, columns: List<ColumnSearch>, layouts: List<InLayout>, binding: String): CompiledQuery {
+        val jdbc = SqlWriter { _, _ -> "?" }
+        val mybatis = SqlWriter { index, array ->
+            if (array) "#{$binding.parameters[$index], typeHandler=org.apache.ibatis.type.ArrayTypeHandler}"
+            else "#{$binding.parameters[$index]}"
+        }
+        for (writer in listOf(jdbc, mybatis)) {
+            writer.criteria(mapParam.criteria, layouts)
+            writer.keywordSearch(columns)
+        }
+        val orderBy = if (mapParam.orderBy.isEmpty()) "" else mapParam.orderBy.joinToString(", ", "ORDER BY ") { "${it.sortBy} ${it.sortOrder}" }
+        return CompiledQuery(jdbc.toString(), mybatis.toString(), orderBy, emptyArray())
+    }
+
+    private class SqlWriter(private val placeholder: (Int, Boolean) -> String) {
+        private val parts = ArrayList<String>()
+        private var index = 0
+
+        private fun next(array: Boolean = false): String = placeholder(index++, array)
+
+        fun criteria(criteria: List<Filter>, layouts: List<InLayout>) {
+            if (criteria.isEmpty()) return
+            val sql = StringBuilder("(")
+            var list = 0
+            criteria.forEachIndexed { position, filter ->
+                if (position > 0) sql.append(' ')
+                if (filter.lBracket.isNotEmpty()) sql.append(filter.lBracket).append(' ')
+                if (filter.isList) {
+                    inList(sql, filter, layouts[list++])
+                } else {
+                    sql.append(filter.field).append(' ').append(filter.op).append(' ').append(next())
+                    if (filter.valueR != null) sql.append(" AND ").append(next())
+                }
+                if (filter.rBracket.isNotEmpty()) sql.append(' ').append(filter.rBracket)
+                // Как suffixOverrides во фрагменте searchCriteria: связка последнего условия отбрасывается
+                if (position < criteria.size - 1 && filter.suffix != SqlSuffix.CLOSE) sql.append(' ').append(filter.suffix.name)
+            }
+            parts.add(sql.append(')').toString())
+        }
+
+        private fun inList(sql: StringBuilder, filter: Filter, layout: InLayout) {
+            val negated = filter.op.equals(Constant.NOT_IN, ignoreCase = true)
+            when (layout.strategy) {
+                EnumInListStrategy.ARRAY ->
+                    sql.append(if (negated) "NOT (" else "(").append(filter.field).append(" = ANY(").append(next(true)).append("))")
+                EnumInListStrategy.CHUNKED -> {
+                    if (layout.chunks > 1) sql.append('(')
+                    repeat(layout.chunks) { chunk ->
+                        if (chunk > 0) sql.append(if (negated) " AND " else " OR ")
+                        sql.append(filter.field).append(' ').append(filter.op).append(' ')
+                        (0 until layout.chunkSize).joinTo(sql, ", ", "(", ")") { next() }
+                    }
+                    if (layout.chunks > 1) sql.append(')')
+                }
+            }
+        }
+
+        fun keywordSearch(columns: List<ColumnSearch>) {
+            if (columns.isEmpty()) return
+            parts.add(columns.joinToString(" OR ", "(", ")") { "${it.name} ${it.operator} ${next()}" })
+        }
+
+        override fun toString(): String = parts.joinToString(" AND ")
+    }
+}
@@ -1,6 +1,7 @@
 package su.erik.tabledataloader.param
 
 import su.erik.tabledataloader.config.Constant
+import java.util.Objects
 
 class Filter(
     override val field: String,
@@ -34,6 +35,19 @@ class Filter(
     override fun withLBracket(lb: String): Filter = apply { this.lBracket = lb }
     override fun withRBracket(rb: String): Filter = apply { this.rBracket = rb }
 
+    /**
+     * Равенство по условию целиком, включая скобки и связку. Filter изменяем при построении MapParam,
+     * поэтому в качестве ключа кэша используйте MapParam.fingerprint().
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (other !is Filter) return false
+        return field == other.field && op == other.op && value == other.value && valueR == other.valueR &&
+                intent == other.intent && suffix == other.suffix && lBracket == other.lBracket && rBracket == other.rBracket
+    }
+
+    override fun hashCode(): Int = Objects.hash(field, op, value, valueR, intent, suffix, lBracket, rBracket)
+
     enum class SqlSuffix { OR, AND, CLOSE }
 
     companion object {
@@ -30,6 +30,18 @@ object HeaderUtils {
             mapParam.limit = Constant.DEFAULT_PER_PAGE
         }
 
+        val cursor = accessor.apply(StandardParam.CURSOR.headerName)
+        if (!cursor.isNullOrBlank()) {
+            // Keyset: позиция задаётся курсором, строки не пропускаются
+            mapParam.cursor = KeysetCursor.decode(cursor)
+            mapParam.offset = 0
+            return
+        }
+        val keyset = accessor.apply(StandardParam.KEYSET_PAGINATION.headerName)
+        if (keyset != null) {
+            mapParam.isKeysetPagination = StandardParam.KEYSET_PAGINATION.parseValue(keyset) as Boolean
+        }
+
         if (page != null) {
             val actualLimit = mapParam.limit ?: Constant.DEFAULT_PER_PAGE
             val safePage = max(page, 1)
@@ -87,4 +99,26 @@ object HeaderUtils {
         }
         return headers
     }
+
+    /**
+     * Заголовки ответа со страницей результата: в keyset-режиме при полной странице добавляется
+     * X-Pagination-Next-Cursor из значений колонок orderBy последней строки.
+     */
+    @JvmStatic
+    fun createResponseHeaders(mapParam: MapParam, totalCount: Long, items: List<*>): MutableMap<String?, String?> {
+        val headers = createResponseHeaders(mapParam, totalCount)
+        nextCursor(mapParam, items)?.let { headers[Constant.X_PAGINATION_NEXT_CURSOR] = it }
+        return headers
+    }
+
+    /**
+     * Курсор следующей страницы или null (не keyset-режим или страница неполная). Вызывается до обработки строк
+     * (forEachConsumer, master-detail), пока последняя строка — строка выборки.
+     */
+    @JvmStatic
+    fun nextCursor(mapParam: MapParam, items: List<*>): String? {
+        val limit = mapParam.limit
+        if (!mapParam.isKeysetPagination || limit == null || items.isEmpty() || items.size < limit) return null
+        return KeysetCursor.valuesOf(items.last(), mapParam.orderBy)?.let { KeysetCursor.encode(it) }
+    }
 }
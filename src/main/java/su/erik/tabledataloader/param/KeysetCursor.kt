@@ -0,0 +1,123 @@
+package su.erik.tabledataloader.param
+
+import com.puls.centralpricing.common.exception.InvalidInputParameterException
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.OffsetDateTime
+import java.util.Base64
+import java.util.Date
+import java.util.UUID
+
+/**
+ * Непрозрачный курсор keyset-пагинации: значения ключа сортировки последней строки страницы.
+ *
+ * Токен — Base64url от последовательности "тип длина:значение". Тип сохраняется, чтобы в SQL
+ * значение сравнивалось как число или дата, а не как строка.
+ */
+object KeysetCursor {
+
+    @JvmStatic
+    fun encode(values: List<Any?>): String {
+        val token = StringBuilder()
+        for (value in values) {
+            val (type, text) = when (value) {
+                null -> 'z' to ""
+                is Long, is Int, is Short, is Byte -> 'l' to value.toString()
+                is BigInteger, is BigDecimal, is Double, is Float -> 'n' to BigDecimal(value.toString()).toPlainString()
+                is String -> 's' to value
+                is Boolean -> 'b' to value.toString()
+                is LocalDate -> 'd' to value.toString()
+                is LocalDateTime -> 't' to value.toString()
+                is java.sql.Timestamp -> 't' to value.toLocalDateTime().toString()
+                is OffsetDateTime -> 'o' to value.toString()
+                is Instant -> 'i' to value.toString()
+                is Date -> 'm' to value.time.toString()
+                is UUID -> 'u' to value.toString()
+                else -> throw IllegalArgumentException("Unsupported cursor value type: ${value.javaClass.name}")
+            }
+            token.append(type).append(text.length).append(':').append(text)
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().toByteArray(StandardCharsets.UTF_8))
+    }
+
+    @JvmStatic
+    fun decode(token: String): List<Any?> {
+        try {
+            val text = String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8)
+            val values = ArrayList<Any?>()
+            var position = 0
+            while (position < text.length) {
+                val type = text[position]
+                val colon = text.indexOf(':', position + 1)
+                val length = text.substring(position + 1, colon).toInt()
+                val value = text.substring(colon + 1, colon + 1 + length)
+                position = colon + 1 + length
+                values.add(
+                    when (type) {
+                        'z' -> null
+                        'l' -> value.toLong()
+                        'n' -> BigDecimal(value)
+                        's' -> value
+                        'b' -> value.toBooleanStrict()
+                        'd' -> LocalDate.parse(value)
+                        't' -> LocalDateTime.parse(value)
+                        'o' -> OffsetDateTime.parse(value)
+                        'i' -> Instant.parse(value)
+                        'm' -> Date(value.toLong())
+                        'u' -> UUID.fromString(value)
+                        else -> throw IllegalArgumentException("Unknown cursor value type: $type")
+                    }
+                )
+            }
+            return values
+        } catch (exception: RuntimeException) {
+            throw InvalidInputParameterException("Invalid pagination cursor")
+        }
+    }
+
+    /**
+     * Значения колонок сортировки из строки результата: ключ Map или свойство объекта.
+     * Имя колонки сравнивается без префикса таблицы, кавычек, регистра и подчёркиваний ("t.created_at" ~ createdAt).
+     * Колонки сортировки должны быть NOT NULL: отсутствующее или пустое значение — ошибка, а не конец выборки
+     * (сравнение с NULL в условии продолжения не работает). Null — строки или сортировки нет.
+     */
+    @JvmStatic
+    fun valuesOf(item: Any?, orderBy: List<MapParam.SortParam>): List<Any?>? {
+        if (item == null || orderBy.isEmpty()) return null
+        return orderBy.map { sort ->
+            when (val value = valueOf(item, normalize(sort.sortBy))) {
+                MISSING -> throw IllegalStateException("Keyset sort column '${sort.sortBy}' is not present in the result row")
+                null -> throw IllegalStateException("Keyset sort column '${sort.sortBy}' is null, keyset pagination requires NOT NULL sort columns")
+                else -> value
+            }
+        }
+    }
+
+    /** Колонка не найдена в строке (в отличие от найденного значения null). */
+    private val MISSING = Any()
+
+    private fun valueOf(item: Any, name: String): Any? {
+        if (item is Map<*, *>) {
+            val entry = item.entries.firstOrNull { it.key is String && normalize(it.key as String) == name } ?: return MISSING
+            return entry.value
+        }
+        var type: Class<*>? = item.javaClass
+        while (type != null && type != Any::class.java) {
+            type.declaredMethods.firstOrNull {
+                it.parameterCount == 0 && (normalize(it.name.removePrefix("get")) == name || normalize(it.name.removePrefix("is")) == name)
+                        && (it.name.startsWith("get") || it.name.startsWith("is"))
+            }?.let { return if (it.trySetAccessible()) it.invoke(item) else MISSING }
+            type.declaredFields.firstOrNull { normalize(it.name) == name }
+                ?.let { return if (it.trySetAccessible()) it.get(item) else MISSING }
+            type = type.superclass
+        }
+        return MISSING
+    }
+
+    private fun normalize(column: String): String =
+        column.substringAfterLast('.').replace("\"", "").replace("_", "").lowercase()
+}
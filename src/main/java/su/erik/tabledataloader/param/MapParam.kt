@@ -2,6 +2,7 @@ package su.erik.tabledataloader.param
 
 import com.puls.centralpricing.common.exception.InvalidInputParameterException
 import su.erik.tabledataloader.config.Constant
+import su.erik.tabledataloader.config.EnumInListStrategy
 import su.erik.tabledataloader.config.StandardParam
 import su.erik.tabledataloader.param.Filter.SqlSuffix
 
@@ -89,6 +90,35 @@ open class MapParam {
         get() = StandardParam.CURRENT_PAGE.getFrom(filters)
         set(value) { filter(StandardParam.CURRENT_PAGE.key, value) }
 
+    /**
+     * Keyset-пагинация: страница продолжается после значений cursor, а не пропускает offset строк.
+     */
+    var isKeysetPagination: Boolean
+        get() = cursor != null || StandardParam.KEYSET_PAGINATION.getFrom<Boolean>(filters)
+        set(value) { filter(StandardParam.KEYSET_PAGINATION.key, value) }
+
+    /**
+     * Значения колонок orderBy последней строки предыдущей страницы (keyset-пагинация).
+     */
+    var cursor: List<Any?>?
+        get() = StandardParam.CURSOR.getFrom(filters)
+        set(value) { filter(StandardParam.CURSOR.key, value) }
+
+    /**
+     * Передача списков IN длиннее Constant.MAX_IN_LIST_SIZE в compile() и Common.masterList.
+     */
+    var inListStrategy: EnumInListStrategy
+        get() = StandardParam.IN_LIST_STRATEGY.getFrom(filters)
+        set(value) { filter(StandardParam.IN_LIST_STRATEGY.key, value) }
+
+    /**
+     * masterListId передаётся без кавычек для параметров #{} (Common.masterList); по умолчанию строковые ID
+     * заключаются в кавычки для подстановки ${item}.
+     */
+    var isMasterListBinding: Boolean
+        get() = StandardParam.MASTER_LIST_BINDING.getFrom(filters)
+        set(value) { filter(StandardParam.MASTER_LIST_BINDING.key, value) }
+
     var userId: Long?
         get() = StandardParam.USER_ID.getFrom(filters)
         set(value) { filter(StandardParam.USER_ID.key, value) }
@@ -189,6 +219,31 @@ open class MapParam {
         orderBy.clear()
     }
 
+    /**
+     * Условия продолжения после cursor для фрагмента Common.keyset:
+     * (a > :a) OR (a = :a AND b > :b) ..., для DESC-колонок сравнение "<".
+     */
+    val keyset: List<SeekCondition>
+        get() {
+            val values = cursor ?: return emptyList()
+            checkCursor(values)
+            return orderBy.indices.map { index ->
+                val sort = orderBy[index]
+                SeekCondition(
+                    (0 until index).map { SeekValue(orderBy[it].sortBy, values[it]) },
+                    sort.sortBy,
+                    if (sort.sortOrder == SortDirection.DESC) "<" else ">",
+                    values[index]
+                )
+            }
+        }
+
+    private fun checkCursor(values: List<Any?>) {
+        if (values.size != orderBy.size || values.any { it == null }) {
+            throw InvalidInputParameterException("Pagination cursor does not match sorting parameters")
+        }
+    }
+
     // =================================================================================================================
     //                                         OTHER CONFIG METHODS
     // =================================================================================================================
@@ -205,6 +260,12 @@ open class MapParam {
 
     fun setMasterListId(ids: List<Any>?): MapParam = apply { this.masterListId = ids }
 
+    /**
+     * Условие "key IN (masterListId)" с параметрами вместо подстановки значений (фрагмент Common.masterList).
+     */
+    fun compileMasterList(key: String): CompiledQuery =
+        CriteriaCompiler.compileIn(key, masterListId.orEmpty(), inListStrategy, CriteriaCompiler.MASTER_LIST_BINDING)
+
     fun addFilialFilterColumn(column: String) = apply {
         if (filialFilterColumns == null) filialFilterColumns = ArrayList()
         filialFilterColumns?.add(column)
@@ -247,10 +308,44 @@ open class MapParam {
         if ((hasLimit || hasOffset) && !hasSorting) {
             throw InvalidInputParameterException("Pagination requires Sorting parameters. Error code: U007")
         }
+        cursor?.let { checkCursor(it) }
     }
 
     fun self(): MapParam = this
 
+    /**
+     * Условия, поиск по колонкам и сортировка в виде SQL с позиционными параметрами (см. CriteriaCompiler).
+     */
+    fun compile(): CompiledQuery = CriteriaCompiler.compile(this)
+
+    /**
+     * Отпечаток запроса целиком: условия, фильтры, поиск, сортировка и страница (ключ кэша результатов).
+     */
+    fun fingerprint(): QueryFingerprint = QueryFingerprint.of(this, true)
+
+    /**
+     * Отпечаток выборки без сортировки и страницы: одинаков у всех страниц (ключ кэша COUNT).
+     */
+    fun selectionFingerprint(): QueryFingerprint = QueryFingerprint.of(this, false)
+
+    /**
+     * Поверхностная копия параметров: filters, criteria, orderBy, поиск по колонкам, masterListId.
+     * Объекты Filter общие с оригиналом, поэтому копия предназначена для производных запросов только на чтение
+     * (например, параллельной выборки детей порциями masterListId).
+     */
+    fun copy(): MapParam {
+        val copy = MapParam()
+        copy.filters.putAll(filters)
+        copy.criteria.addAll(criteria)
+        copy.orderBy.addAll(orderBy)
+        tableSearch.copyTo(copy.tableSearch)
+        copy.lastAddedCondition = lastAddedCondition
+        copy.pendingOpenBrackets = pendingOpenBrackets
+        copy.filialFilterColumns = filialFilterColumns?.let { ArrayList(it) }
+        copy.masterListId = masterListId
+        return copy
+    }
+
     // =================================================================================================================
     //                                         NESTED CLASSES
     // =================================================================================================================
@@ -259,6 +354,10 @@ open class MapParam {
         override fun toString(): String = "$sortBy $sortOrder"
     }
 
+    data class SeekValue(val sortBy: String, val value: Any?)
+
+    data class SeekCondition(val equal: List<SeekValue>, val sortBy: String, val operator: String, val value: Any?)
+
     enum class SortDirection {
         ASC,
         DESC;
@@ -0,0 +1,200 @@
+package su.erik.tabledataloader.param
+
+import su.erik.tabledataloader.config.StandardParam
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.nio.charset.Charset
+import java.time.temporal.TemporalAccessor
+import java.util.Date
+import java.util.UUID
+
+/**
+ * Ключ запроса MapParam: каноническое представление и его 128-битный хэш (MurmurHash3 x64/128).
+ *
+ * Учитываются criteria (со скобками и связками), filters без служебных ключей (StandardParam.isInternal),
+ * поиск, masterListId и, для полного отпечатка, сортировка и страница. Порядок ключей filters и элементов Set
+ * не важен, Integer и Long с одним значением равны. Хэш только ускоряет сравнение: равенство проверяется
+ * по каноническому представлению, поэтому коллизии хэша не смешивают разные запросы. Значения неизвестных
+ * типов сравниваются по equals() и не должны изменяться, пока ключ используется в кэше.
+ */
+class QueryFingerprint private constructor(val high: Long, val low: Long, private val canonical: Any?) {
+
+    override fun equals(other: Any?): Boolean =
+        other is QueryFingerprint && other.high == high && other.low == low && other.canonical == canonical
+
+    override fun hashCode(): Int = (low xor (low ushr 32)).toInt()
+
+    override fun toString(): String = "%016x%016x".format(high, low)
+
+    companion object {
+
+        /** Ключи filters, задающие только страницу и порядок, а не саму выборку. */
+        private val PAGING_KEYS = setOf(
+            StandardParam.PER_PAGE.key, StandardParam.CURRENT_PAGE.key, StandardParam.IS_CUSTOM_PAGINATION.key,
+            StandardParam.KEYSET_PAGINATION.key, StandardParam.CURSOR.key,
+            StandardParam.SORT_FIELD.key, StandardParam.SORT_ORDER.key
+        )
+
+        private const val NULL = 0L
+        private const val STRING = 1L
+        private const val INTEGRAL = 2L
+        private const val DECIMAL = 3L
+        private const val FLOATING = 4L
+        private const val BOOLEAN = 5L
+        private const val LIST = 6L
+        private const val MAP = 7L
+        private const val SET = 8L
+        private const val TEXT = 9L
+        private const val DATE = 10L
+        private const val ENUM = 11L
+        private const val FILTER = 12L
+        private const val OTHER = 13L
+
+        /** Значение с меткой типа в каноническом представлении (Filter, Date). */
+        private data class Tagged(val tag: Long, val value: Any?)
+
+        /**
+         * @param includePage false — без сортировки и позиции страницы (одинаков у всех страниц выборки).
+         */
+        @JvmStatic
+        fun of(mapParam: MapParam, includePage: Boolean): QueryFingerprint {
+            val parts = mutableListOf(
+                canonical(mapParam.criteria),
+                canonical(mapParam.filters.filterKeys { !StandardParam.isInternalKey(it) && (includePage || it !in PAGING_KEYS) }),
+                mapParam.keywordSearch,
+                mapParam.keywordSearchType,
+                mapParam.columns.map { listOf(it.name, it.operator) },
+                canonical(mapParam.masterListId),
+                mapParam.filialFilterColumns?.toList()
+            )
+            if (includePage) {
+                parts.add(mapParam.orderBy.map { listOf(it.sortBy, it.sortOrder.name) })
+            }
+            val hasher = Murmur3()
+            hasher.value(parts)
+            return hasher.finish(parts)
+        }
+
+        /**
+         * Неизменяемая нормализованная копия значения: числа приведены к Long / Double / BigDecimal без
+         * хвостовых нулей, массивы — к спискам, Filter и Date — к помеченным значениям.
+         */
+        private fun canonical(value: Any?): Any? = when (value) {
+            null, is String, is Boolean, is Enum<*>, is BigInteger, is TemporalAccessor, is UUID, is Charset -> value
+            is Long, is Int, is Short, is Byte -> (value as Number).toLong()
+            is BigDecimal -> value.stripTrailingZeros()
+            is Double, is Float -> (value as Number).toDouble()
+            is Filter -> Tagged(FILTER, listOf(value.lBracket, value.field, value.op, value.value, value.valueR,
+                value.rBracket, value.suffix, value.intent).map { canonical(it) })
+            is Date -> Tagged(DATE, value.time)
+            is List<*> -> value.map { canonical(it) }
+            is Array<*> -> value.map { canonical(it) }
+            is Set<*> -> value.mapTo(HashSet()) { canonical(it) }
+            is Map<*, *> -> value.entries.associateTo(HashMap()) { canonical(it.key) to canonical(it.value) }
+            else -> value
+        }
+    }
+
+    /**
+     * Потоковый MurmurHash3 x64/128 над последовательностью 64-битных слов (по каноническому представлению).
+     */
+    private class Murmur3 {
+        private var h1 = 0L
+        private var h2 = 0L
+        private var pending = 0L
+        private var hasPending = false
+        private var length = 0L
+
+        fun value(value: Any?) {
+            when (value) {
+                null -> word(NULL)
+                is String -> string(STRING, value)
+                is Long, is Int, is Short, is Byte -> { word(INTEGRAL); word((value as Number).toLong()) }
+                is BigInteger -> string(DECIMAL, value.toString())
+                is BigDecimal -> string(DECIMAL, value.stripTrailingZeros().toPlainString())
+                is Double, is Float -> { word(FLOATING); word((value as Number).toDouble().toRawBits()) }
+                is Boolean -> { word(BOOLEAN); word(if (value) 1 else 0) }
+                is Enum<*> -> { string(ENUM, value.javaClass.name); string(STRING, value.name) }
+                is Tagged -> { word(value.tag); value(value.value) }
+                is TemporalAccessor, is UUID, is Charset -> { string(TEXT, value.javaClass.name); string(STRING, value.toString()) }
+                is List<*> -> { word(LIST); word(value.size.toLong()); value.forEach { value(it) } }
+                is Set<*> -> unordered(SET, value.map { element -> nested { value(element) } })
+                is Map<*, *> -> unordered(MAP, value.entries.map { entry -> nested { value(entry.key); value(entry.value) } })
+                else -> { string(OTHER, value.javaClass.name); word(value.hashCode().toLong()) }
+            }
+        }
+
+        private fun nested(block: Murmur3.() -> Unit): QueryFingerprint = Murmur3().apply(block).finish(null)
+
+        /** Коллекция без порядка: отпечатки элементов сортируются. */
+        private fun unordered(tag: Long, elements: List<QueryFingerprint>) {
+            word(tag)
+            word(elements.size.toLong())
+            elements.sortedWith(compareBy<QueryFingerprint> { it.high }.thenBy { it.low }).forEach {
+                word(it.high)
+                word(it.low)
+            }
+        }
+
+        private fun string(tag: Long, value: String) {
+            word(tag)
+            word(value.length.toLong())
+            var packed = 0L
+            for (index in value.indices) {
+                packed = (packed shl 16) or value[index].code.toLong()
+                if (index % 4 == 3) {
+                    word(packed)
+                    packed = 0L
+                }
+            }
+            if (value.length % 4 != 0) word(packed)
+        }
+
+        private fun word(value: Long) {
+            length += 8
+            if (!hasPending) {
+                pending = value
+                hasPending = true
+                return
+            }
+            hasPending = false
+            h1 = h1 xor mixK1(pending)
+            h1 = java.lang.Long.rotateLeft(h1, 27) + h2
+            h1 = h1 * 5 + 0x52dce729
+            h2 = h2 xor mixK2(value)
+            h2 = java.lang.Long.rotateLeft(h2, 31) + h1
+            h2 = h2 * 5 + 0x38495ab5
+        }
+
+        fun finish(canonical: Any?): QueryFingerprint {
+            if (hasPending) h1 = h1 xor mixK1(pending)
+            h1 = h1 xor length
+            h2 = h2 xor length
+            h1 += h2
+            h2 += h1
+            h1 = fmix(h1)
+            h2 = fmix(h2)
+            h1 += h2
+            h2 += h1
+            return QueryFingerprint(h1, h2, canonical)
+        }
+
+        private fun mixK1(k: Long): Long = java.lang.Long.rotateLeft(k * C1, 31) * C2
+
+        private fun mixK2(k: Long): Long = java.lang.Long.rotateLeft(k * C2, 33) * C1
+
+        private fun fmix(k: Long): Long {
+            var h = k
+            h = h xor (h ushr 33)
+            h *= -0xae502812aa7333L
+            h = h xor (h ushr 33)
+            h *= -0x3b314601e57a13adL
+            return h xor (h ushr 33)
+        }
+
+        private companion object {
+            const val C1 = -0x783c846eeebdac2bL
+            const val C2 = 0x4cf5ad432745937fL
+        }
+    }
+}
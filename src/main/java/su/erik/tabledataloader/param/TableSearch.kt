@@ -29,6 +29,12 @@ class TableSearch {
         list.forEach { add(it) }
     }
 
+    // Переносит ключевое слово и копии колонок в другой TableSearch (колонки привязаны к своему родителю)
+    fun copyTo(target: TableSearch) {
+        if (keywordSearch.isNotEmpty()) target.keywordSearch = keywordSearch
+        columnSearchList.forEach { target.add(ColumnSearch(it.name, it.supportedTypes, it.operator)) }
+    }
+
     // Возвращает только те колонки, которые подходят под тип введенных данных
     fun toList(): List<ColumnSearch> {
         return columnSearchList.filter { it.typeSupported() }
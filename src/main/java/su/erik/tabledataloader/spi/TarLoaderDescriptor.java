@@ -0,0 +1,26 @@
+package su.erik.tabledataloader.spi;
+
+import su.erik.tabledataloader.config.EnumLoaderType;
+import su.erik.tabledataloader.importer.loader.ZipFileLoader;
+
+import java.util.List;
+
+/**
+ * Архивы tar. Тип архива ZipFileLoader определяет по полному имени файла.
+ */
+public class TarLoaderDescriptor implements LoaderDescriptor {
+    @Override
+    public EnumLoaderType getType() {
+        return EnumLoaderType.LOADER;
+    }
+
+    @Override
+    public List<String> getSupportedExtensions() {
+        return List.of("tar");
+    }
+
+    @Override
+    public Class<?> getComponentClass() {
+        return ZipFileLoader.class;
+    }
+}
@@ -0,0 +1,67 @@
+package su.erik.tabledataloader;
+
+import com.puls.centralpricing.common.exception.StandardFault;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.exporter.FileExporter;
+import su.erik.tabledataloader.exporter.csv.CsvFileExporter;
+import su.erik.tabledataloader.importer.csv.MockMapper;
+import su.erik.tabledataloader.importer.loader.CsvFileLoader;
+import su.erik.tabledataloader.importer.loader.FileLoader;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoaderRegistryTest {
+
+    @Test
+    @DisplayName("REGISTRY: Загрузчики и экспортеры создаются закэшированными конструкторами, filters не меняются")
+    void testCreateComponents() {
+        LoaderRegistry registry = new LoaderRegistry();
+        Map<String, Object> filters = new HashMap<>();
+
+        FileLoader first = registry.createLoader("csv", Map.class, new MockMapper<>(), filters);
+        FileLoader second = registry.createLoader(".CSV", Map.class, new MockMapper<>(), filters);
+        assertInstanceOf(CsvFileLoader.class, first);
+        assertNotSame(first, second);
+        assertTrue(filters.isEmpty());
+
+        FileExporter exporter = registry.createExporter(List.of(Map.of("id", 1)), CsvFileExporter.class);
+        assertInstanceOf(CsvFileExporter.class, exporter);
+    }
+
+    @Test
+    @DisplayName("REGISTRY: Компонент без нужного конструктора даёт StandardFault")
+    void testMissingConstructor() {
+        LoaderRegistry registry = new LoaderRegistry();
+        assertThrows(StandardFault.class, () -> registry.createExporter(List.of(), FileExporter.class));
+    }
+
+    @Test
+    @DisplayName("REGISTRY: Поиск во время refresh() и регистрации не видит реестр наполовину")
+    void testConcurrentRefresh() throws InterruptedException {
+        LoaderRegistry registry = new LoaderRegistry();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 200; i++) {
+                registry.refresh();
+                registry.registerExporter("ext" + i, CsvFileExporter.class);
+            }
+            running.set(false);
+        });
+
+        int lookups = 0;
+        while (running.get() || lookups == 0) {
+            assertEquals(CsvFileLoader.class, registry.getLoaderClass("csv"));
+            assertEquals(CsvFileExporter.class, registry.getExporterClass("csv"));
+            lookups++;
+        }
+        writer.join();
+        assertEquals(CsvFileExporter.class, registry.getExporterClass("ext199"));
+        assertNull(registry.getExporterClass("ext0"), "refresh() сбрасывает ручные регистрации");
+    }
+}
@@ -2,12 +2,19 @@ package su.erik.tabledataloader;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import com.puls.centralpricing.common.exception.InvalidInputParameterException;
 import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.config.EnumInListStrategy;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.param.CompiledQuery;
 import su.erik.tabledataloader.param.Filter;
 import su.erik.tabledataloader.param.Filter.SqlSuffix;
+import su.erik.tabledataloader.param.HeaderUtils;
+import su.erik.tabledataloader.param.KeysetCursor;
 import su.erik.tabledataloader.param.MapParam;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -150,4 +157,155 @@ class MapParamFilterTest {
         assertEquals("myTable", param.getFilters().get("tableParam"));
         assertEquals("users", param.getFilters().get(Constant.TABLE_NAME));
     }
+
+    @Test
+    @DisplayName("Keyset: Курсор сохраняет типы значений и задаёт условия продолжения")
+    void testKeysetCursor() {
+        record Row(String createdAt, long id) { }
+        MapParam param = new MapParam(2);
+        param.addOrderBy("t.created_at", "DESC");
+        param.addOrderBy("id", "ASC");
+        param.setKeysetPagination(true);
+
+        List<Row> page = List.of(new Row("2024-01-02", 7L), new Row("2024-01-01", 9L));
+        String cursor = HeaderUtils.createResponseHeaders(param, 0, page).get(Constant.X_PAGINATION_NEXT_CURSOR);
+        assertEquals(List.of("2024-01-01", 9L), KeysetCursor.decode(cursor));
+        assertNull(HeaderUtils.createResponseHeaders(param, 0, page.subList(0, 1)).get(Constant.X_PAGINATION_NEXT_CURSOR),
+                "Неполная страница — последняя");
+
+        MapParam next = new MapParam(2);
+        next.addOrderBy("t.created_at", "DESC");
+        next.addOrderBy("id", "ASC");
+        next.setCursor(KeysetCursor.decode(cursor));
+        List<MapParam.SeekCondition> keyset = next.getKeyset();
+        assertEquals(2, keyset.size());
+        assertEquals("<", keyset.get(0).getOperator());
+        assertEquals(List.of(new MapParam.SeekValue("t.created_at", "2024-01-01")), keyset.get(1).getEqual());
+        assertEquals(">", keyset.get(1).getOperator());
+        assertEquals(9L, keyset.get(1).getValue());
+
+        record NullableRow(String createdAt, Long id) { }
+        assertThrows(IllegalStateException.class, () -> HeaderUtils.createResponseHeaders(param, 0,
+                List.of(new NullableRow("2024-01-02", 7L), new NullableRow("2024-01-01", null))), "NULL в колонке сортировки — ошибка");
+
+        next.addOrderBy("name", "ASC");
+        assertThrows(InvalidInputParameterException.class, next::check);
+        assertThrows(InvalidInputParameterException.class, () -> KeysetCursor.decode("not a cursor"));
+    }
+
+    @Test
+    @DisplayName("Fingerprint: Одинаков для равных запросов, служебные ключи и страница не влияют на отпечаток выборки")
+    void testFingerprint() {
+        MapParam first = new MapParam(10);
+        first.addCriteria("status", "=", "NEW");
+        first.filter("region", 5);
+        first.filter("date", "2024-01-01");
+        first.addOrderBy("id", "ASC");
+
+        MapParam second = new MapParam();
+        second.filter("date", "2024-01-01");
+        second.filter("region", 5L);
+        second.addCriteria("status", "=", "NEW");
+        second.setLimit(10);
+        second.addOrderBy("id", "ASC");
+        second.filter(StandardParam.FILE.getKey(), new Object());
+
+        assertEquals(first.fingerprint(), second.fingerprint());
+        assertEquals(first.fingerprint().hashCode(), second.fingerprint().hashCode());
+        assertEquals(32, first.fingerprint().toString().length());
+        assertEquals(first.getCriteria(), second.getCriteria());
+
+        second.setOffset(20);
+        assertNotEquals(first.fingerprint(), second.fingerprint());
+        assertEquals(first.selectionFingerprint(), second.selectionFingerprint());
+
+        second.addCriteria("name", Constant.LIKE, "a");
+        assertNotEquals(first.selectionFingerprint(), second.selectionFingerprint());
+        assertNotEquals(first.getCriteria(), second.getCriteria());
+    }
+
+    @Test
+    @DisplayName("Fingerprint: Совпадение хэша не делает разные запросы равными")
+    void testFingerprintCollision() {
+        record Code(String value) {
+            @Override public int hashCode() { return 1; }
+        }
+        MapParam first = new MapParam().filter("code", new Code("A"));
+        MapParam second = new MapParam().filter("code", new Code("B"));
+
+        assertEquals(first.fingerprint().toString(), second.fingerprint().toString());
+        assertNotEquals(first.fingerprint(), second.fingerprint());
+        assertEquals(first.fingerprint(), new MapParam().filter("code", new Code("A")).fingerprint());
+    }
+
+    @Test
+    @DisplayName("Compiler: SQL с позиционными параметрами общий для запросов одной формы")
+    void testCompiledCriteria() {
+        MapParam first = new MapParam()
+                .openBracket()
+                .addCriteria("status", "=", "NEW", SqlSuffix.OR)
+                .addCriteriaIn("region", List.of(1, 2))
+                .closeBracket()
+                .addCriteria("price", "BETWEEN", 10, 20)
+                .prepareValue();
+        first.setKeywordSearch("abc");
+        first.setColumns("name", "code");
+        first.addOrderBy("id", "DESC");
+
+        CompiledQuery compiled = first.compile();
+        assertEquals("(( status = ? OR region IN (?, ?) ) AND price BETWEEN ? AND ?) AND (name LIKE ? OR code LIKE ?)", compiled.getWhere());
+        assertEquals("ORDER BY id DESC", compiled.getOrderBy());
+        assertArrayEquals(new Object[]{"NEW", 1, 2, 10, 20, "abc", "abc"}, compiled.getParameters());
+        assertTrue(compiled.getMybatisWhere().contains("#{compiled.parameters[6]}"));
+
+        MapParam second = new MapParam()
+                .openBracket()
+                .addCriteria("status", "=", "DONE", SqlSuffix.OR)
+                .addCriteriaIn("region", List.of(7, 8))
+                .closeBracket()
+                .addCriteria("price", "BETWEEN", 1, 2)
+                .prepareValue();
+        second.setKeywordSearch("xyz");
+        second.setColumns("name", "code");
+        second.addOrderBy("id", "DESC");
+
+        CompiledQuery other = second.compile();
+        assertSame(compiled.getWhere(), other.getWhere());
+        assertArrayEquals(new Object[]{"DONE", 7, 8, 1, 2, "xyz", "xyz"}, other.getParameters());
+
+        second.addCriteriaIn("type", List.of(1, 2, 3));
+        assertNotEquals(compiled.getWhere(), second.compile().getWhere());
+        assertEquals("", new MapParam().compile().getWhere());
+    }
+
+    @Test
+    @DisplayName("Compiler: Длинные списки IN сохраняют форму SQL при любой стратегии")
+    void testLargeInList() {
+        List<Integer> small = List.of(1, 2, 3);
+        CompiledQuery padded = new MapParam().addCriteriaIn("id", small).compile();
+        assertEquals("(id IN (?, ?, ?, ?))", padded.getWhere());
+        assertArrayEquals(new Object[]{1, 2, 3, 3}, padded.getParameters());
+
+        List<Integer> large = IntStream.rangeClosed(1, 2500).boxed().toList();
+        CompiledQuery chunked = new MapParam().addCriteriaIn("id", large).compile();
+        assertEquals(4000, chunked.getParameters().length, "Число порций дополняется до степени двойки");
+        assertEquals(2500, chunked.getParameters()[3999]);
+        assertTrue(chunked.getWhere().startsWith("((id IN (?"));
+        assertEquals(4, chunked.getWhere().split(" OR ").length);
+        assertSame(chunked.getWhere(), new MapParam().addCriteriaIn("id", large.subList(0, 2100)).compile().getWhere());
+        List<Integer> larger = IntStream.rangeClosed(1, 4000).boxed().toList();
+        assertSame(chunked.getWhere(), new MapParam().addCriteriaIn("id", larger).compile().getWhere());
+
+        MapParam arrayParam = new MapParam().addCriteriaIn("id", large, SqlSuffix.AND, Constant.NOT_IN);
+        arrayParam.setInListStrategy(EnumInListStrategy.ARRAY);
+        CompiledQuery array = arrayParam.compile();
+        assertEquals("(NOT (id = ANY(?)))", array.getWhere());
+        assertInstanceOf(Integer[].class, array.getParameters()[0]);
+        assertTrue(array.getMybatisWhere().contains("ArrayTypeHandler"));
+
+        MapParam master = new MapParam().setMasterListId(List.of("a'1", "b"));
+        CompiledQuery masterList = master.compileMasterList("parent_id");
+        assertEquals("(parent_id IN (#{masterIn.parameters[0]}, #{masterIn.parameters[1]}))", masterList.getMybatisWhere());
+        assertArrayEquals(new Object[]{"a'1", "b"}, masterList.getParameters());
+    }
 }
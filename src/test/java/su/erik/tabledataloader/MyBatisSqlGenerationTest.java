@@ -15,6 +15,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import su.erik.tabledataloader.config.Constant;
 import su.erik.tabledataloader.param.Filter;
+import su.erik.tabledataloader.param.HeaderUtils;
 import su.erik.tabledataloader.param.MapParam;
 
 import java.io.InputStream;
@@ -39,6 +40,7 @@ class MyBatisSqlGenerationTest {
         configuration.setLogImpl(StdOutImpl.class);
 
         loadXml(configuration, "com/puls/centralpricing/handlers/mapper/reuse/Common.xml");
+        loadXml(configuration, "su/erik/tabledataloader/mybatis/Common.xml");
         loadXml(configuration, "su/erik/tabledataloader/TestMapper.xml");
 
         sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
@@ -230,4 +232,75 @@ class MyBatisSqlGenerationTest {
             assertEquals(15, ((Number) result.getLast().get("id")).intValue());
         }
     }
+
+    @Test
+    @DisplayName("MyBatis: Keyset-пагинация по нескольким колонкам через курсор из заголовков")
+    void testKeysetPagination() {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            TestMapper mapper = session.getMapper(TestMapper.class);
+            MapParam first = new MapParam(10);
+            first.filter("number", 50);
+            first.setOffset(0);
+            first.setKeysetPagination(true);
+            first.addOrderBy("is_active", "DESC");
+            first.addOrderBy("id", "ASC");
+
+            List<Map<String, Object>> page = mapper.testSelect(first);
+            assertEquals(2, ((Number) page.getFirst().get("id")).intValue());
+            String cursor = HeaderUtils.createResponseHeaders(first, 50, page).get(Constant.X_PAGINATION_NEXT_CURSOR);
+            assertNotNull(cursor);
+
+            MapParam next = new MapParam();
+            next.filter("number", 50);
+            next.addOrderBy("is_active", "DESC");
+            next.addOrderBy("id", "ASC");
+            HeaderUtils.fillMapParam(next, header -> switch (header) {
+                case "X-Pagination-Per-Page" -> "10";
+                case "X-Pagination-Cursor" -> cursor;
+                default -> null;
+            });
+
+            List<Map<String, Object>> result = mapper.testSelect(next);
+            assertEquals(10, result.size());
+            assertEquals(22, ((Number) result.getFirst().get("id")).intValue());
+            assertEquals(40, ((Number) result.getLast().get("id")).intValue());
+        }
+    }
+
+    @Test
+    @DisplayName("MyBatis: Скомпилированные условия дают тот же результат, что и searchCriteria")
+    void testCompiledCriteria() {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            TestMapper mapper = session.getMapper(TestMapper.class);
+            MapParam param = new MapParam()
+                .filter("number", 20)
+                .openBracket()
+                .addCriteria("id", "IN", List.of(2, 3, 4, 5, 6), Filter.SqlSuffix.OR)
+                .addCriteria("id", "BETWEEN", 15, 18)
+                .closeBracket()
+                .addCriteria("is_active", true);
+            param.setKeywordSearch("test%");
+            param.setColumns("name");
+            param.addOrderBy("id", "DESC");
+            param.prepareValue();
+
+            List<Map<String, Object>> compiled = mapper.testSelectCompiled(param);
+            assertEquals(mapper.testSelect(param), compiled);
+            assertEquals(List.of(18, 16, 6, 4, 2), compiled.stream().map(row -> ((Number) row.get("id")).intValue()).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("MyBatis: Common.masterList передаёт ID параметрами")
+    void testBoundMasterList() {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            TestMapper mapper = session.getMapper(TestMapper.class);
+            MapParam param = new MapParam().filter("number", 10);
+            param.setMasterListBinding(true);
+            param.setMasterListId(List.of(2, 3, 4));
+
+            List<Map<String, Object>> result = mapper.testSelectCompiled(param);
+            assertEquals(List.of(2, 3, 4), result.stream().map(row -> ((Number) row.get("id")).intValue()).toList());
+        }
+    }
 }
@@ -20,6 +20,8 @@ class ServiceProviderTest {
                 Arguments.of(LoaderDescriptor.class, TxtImporterDescriptor.class),
                 Arguments.of(LoaderDescriptor.class, CsvLoaderDescriptor.class),
                 Arguments.of(LoaderDescriptor.class, ZipLoaderDescriptor.class),
+                Arguments.of(LoaderDescriptor.class, GzipLoaderDescriptor.class),
+                Arguments.of(LoaderDescriptor.class, TarLoaderDescriptor.class),
                 Arguments.of(LoaderDescriptor.class, CsvExporterDescriptor.class)
         );
     }
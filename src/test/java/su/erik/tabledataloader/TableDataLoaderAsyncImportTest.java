@@ -0,0 +1,146 @@
+package su.erik.tabledataloader;
+
+import com.opencsv.bean.CsvBindByName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.config.EnumImportJobStatus;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.context.DataLoaderContext;
+import su.erik.tabledataloader.dto.DataResponse;
+import su.erik.tabledataloader.dto.InputFile;
+import su.erik.tabledataloader.dto.LoaderHttpStatus;
+import su.erik.tabledataloader.importer.ImportMapper;
+import su.erik.tabledataloader.importer.job.ImportJob;
+import su.erik.tabledataloader.importer.job.ImportJobInfo;
+import su.erik.tabledataloader.importer.model.UploadDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableDataLoaderAsyncImportTest {
+
+    public static class RowDto {
+        @CsvBindByName(column = "id") private Long id;
+    }
+
+    /**
+     * Маппер, который может задержать первую вставку до сигнала теста.
+     */
+    private static class GatedMapper implements ImportMapper<RowDto> {
+        private final List<Long> inserted = new CopyOnWriteArrayList<>();
+        private final List<Long> deleted = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstInsert = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        GatedMapper(boolean gated) {
+            this.release = new CountDownLatch(gated ? 1 : 0);
+        }
+
+        @Override public void insertHeader(UploadDTO uploadDTO) { uploadDTO.setId(42L); }
+        @Override public void createTempTable(List<String> headers, String tempTableName) { }
+        @Override
+        public void insert(Map<String, Object> customFilters) {
+            inserted.add(((RowDto) customFilters.get("importDTO")).id);
+            firstInsert.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        @Override public void delete(long uploadId) { deleted.add(uploadId); }
+        @Override public void finish(Map<String, Object> customFilters) { }
+        @Override public void flush() { }
+    }
+
+    private static InputFile csvFile(String content) {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        return new InputFile() {
+            @Override public InputStream getInputStream() { return new ByteArrayInputStream(data); }
+            @Override public String getOriginalFilename() { return "rows.csv"; }
+            @Override public long getSize() { return data.length; }
+        };
+    }
+
+    private static ImportJob awaitDone(DataLoaderContext context, String jobId) throws InterruptedException {
+        ImportJob job = context.getImportJobRegistry().get(jobId);
+        for (int i = 0; i < 500 && !job.isDone(); i++) Thread.sleep(10);
+        assertTrue(job.isDone(), "Задача не завершилась");
+        return job;
+    }
+
+    @Test
+    @DisplayName("ASYNC: Импорт возвращает ACCEPTED с id задачи, итог доступен через реестр")
+    void testAsyncImport() throws InterruptedException {
+        DataLoaderContext context = new DataLoaderContext(new LoaderRegistry(), null);
+        GatedMapper mapper = new GatedMapper(false);
+
+        TableDataLoader<RowDto> loader = TableDataLoader.<RowDto>create(context)
+                .useImportMapper(mapper)
+                .setMapParam(StandardParam.FILE.getKey(), csvFile("id\n1\n2\n3\n"));
+        DataResponse<ImportJobInfo> response = loader.buildAsync(RowDto.class);
+
+        assertEquals(LoaderHttpStatus.ACCEPTED, response.status());
+        String jobId = response.headers().get(Constant.X_IMPORT_JOB_ID);
+        assertEquals(jobId, response.items().getFirst().id());
+
+        ImportJob job = awaitDone(context, jobId);
+        assertEquals(EnumImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getInfo().result().count());
+        assertEquals(3, job.getInfo().progress().rowsInserted());
+        assertEquals(List.of(1L, 2L, 3L), mapper.inserted);
+        assertNull(loader.getMapParam().getFilters().get(StandardParam.IMPORT_LISTENER.getKey()),
+                "Задача работает с копией фильтров запроса");
+        assertSame(job, context.getImportJobRegistry().remove(jobId));
+        assertNull(context.getImportJobRegistry().get(jobId));
+    }
+
+    @Test
+    @DisplayName("ASYNC: Отмена останавливает импорт и удаляет загрузку")
+    void testCancel() throws InterruptedException {
+        DataLoaderContext context = new DataLoaderContext(new LoaderRegistry(), null);
+        GatedMapper mapper = new GatedMapper(true);
+
+        DataResponse<ImportJobInfo> response = TableDataLoader.<RowDto>create(context)
+                .useImportMapper(mapper)
+                .setBatchSize(1)
+                .setMapParam(StandardParam.FILE.getKey(), csvFile("id\n1\n2\n3\n"))
+                .buildAsync(RowDto.class);
+        String jobId = response.items().getFirst().id();
+
+        assertTrue(mapper.firstInsert.await(5, TimeUnit.SECONDS));
+        assertTrue(context.getImportJobRegistry().cancel(jobId));
+        assertNull(context.getImportJobRegistry().remove(jobId), "Незавершённая задача не удаляется");
+        mapper.release.countDown();
+
+        ImportJob job = awaitDone(context, jobId);
+        assertEquals(EnumImportJobStatus.CANCELLED, job.getStatus());
+        assertEquals(List.of(1L), mapper.inserted);
+        assertEquals(List.of(42L), mapper.deleted);
+        assertFalse(context.getImportJobRegistry().cancel(jobId));
+    }
+
+    @Test
+    @DisplayName("ASYNC: Error в задаче завершает её со статусом FAILED")
+    void testErrorFailsJob() throws InterruptedException {
+        DataLoaderContext context = new DataLoaderContext(new LoaderRegistry(), null);
+        ImportJob job = context.getImportJobRegistry().submit("rows.csv", new GatedMapper(false), null, (mapper, importJob) -> {
+            throw new StackOverflowError("deep");
+        });
+
+        awaitDone(context, job.getId());
+        assertEquals(EnumImportJobStatus.FAILED, job.getStatus());
+        assertEquals("deep", job.getInfo().error());
+        context.getImportJobRegistry().purgeFinished();
+        assertNull(context.getImportJobRegistry().get(job.getId()));
+    }
+}
@@ -2,13 +2,18 @@ package su.erik.tabledataloader;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.dto.DataStreamResponse;
 import su.erik.tabledataloader.dto.LoaderHttpStatus;
 import su.erik.tabledataloader.importer.ImportMapper;
 import su.erik.tabledataloader.importer.model.UploadDTO;
+import su.erik.tabledataloader.param.KeysetCursor;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +38,25 @@ class TableDataLoaderCoreTest {
         assertTrue((Boolean) response.items().get(0).get("processed"));
     }
 
+    @Test
+    @DisplayName("GET: Keyset-курсор берётся из строки выборки до пост-обработки")
+    void testKeysetCursorBeforeConsumer() {
+        var loader = TableDataLoader.<Map<String, Object>>create()
+                .useToGetData(param -> {
+                    List<Map<String, Object>> rows = new ArrayList<>();
+                    rows.add(new HashMap<>(Map.of("id", 1L)));
+                    rows.add(new HashMap<>(Map.of("id", 2L)));
+                    return rows;
+                })
+                .setForEachConsumer(map -> map.remove("id"))
+                .setLimit(2)
+                .addOrderBy("id", "ASC")
+                .useKeysetPagination();
+
+        var response = loader.build();
+        assertEquals(List.of(2L), KeysetCursor.decode(response.headers().get(Constant.X_PAGINATION_NEXT_CURSOR)));
+    }
+
     @Test
     @DisplayName("GET: Получение списка данных и проверка параметров")
     void testGetList() {
@@ -84,4 +108,47 @@ class TableDataLoaderCoreTest {
         var response = loader.build(TableDataLoader.BuildMode.SINGLE_ENTITY);
         assertEquals(LoaderHttpStatus.NOT_FOUND, response.status());
     }
+
+    @Test
+    @DisplayName("GET: Потоковая выборка применяет consumer лениво и считает элементы")
+    void testBuildStream() {
+        AtomicInteger consumed = new AtomicInteger();
+        var loader = TableDataLoader.<String>create()
+                .useToGetData(param -> List.of("A", "B", "C"))
+                .setForEachConsumer(item -> consumed.incrementAndGet());
+
+        try (DataStreamResponse<String> response = loader.buildStream()) {
+            assertNull(response.total(), "Без countFetcher общее количество неизвестно");
+            assertFalse(response.headers().containsKey(Constant.X_PAGINATION_TOTAL_ENTRIES));
+            assertEquals(0, consumed.get(), "Consumer не должен вызываться до чтения стрима");
+
+            List<String> items = response.items().toList();
+            assertEquals(List.of("A", "B", "C"), items);
+            assertEquals(3, consumed.get());
+            assertEquals(3L, response.streamedCount().getAsLong());
+        }
+    }
+
+    @Test
+    @DisplayName("GET: Потоковая выборка с master-detail")
+    void testBuildStreamMasterDetail() {
+        List<Map<String, Object>> masters = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Map<String, Object> master = new HashMap<>();
+            master.put(Constant.MASTER_ID, i);
+            masters.add(master);
+        }
+
+        var loader = TableDataLoader.<Map<String, Object>>create()
+                .useToGetData(param -> masters)
+                .useToCount(param -> 3L)
+                .useChildList(param -> List.of(new HashMap<>(Map.of(Constant.MASTER_ID, 2, "name", "child"))));
+
+        try (DataStreamResponse<Map<String, Object>> response = loader.buildStream()) {
+            assertEquals(3L, response.total());
+            List<Map<String, Object>> items = response.items().toList();
+            assertEquals(1, ((List<?>) items.get(1).get(Constant.EXPANDED_KEY)).size());
+            assertTrue(((List<?>) items.get(0).get(Constant.EXPANDED_KEY)).isEmpty());
+        }
+    }
 }
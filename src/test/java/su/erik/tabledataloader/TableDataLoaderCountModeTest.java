@@ -0,0 +1,125 @@
+package su.erik.tabledataloader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.Constant;
+import su.erik.tabledataloader.config.EnumCountMode;
+import su.erik.tabledataloader.context.DataLoaderContext;
+import su.erik.tabledataloader.dto.DataResponse;
+import su.erik.tabledataloader.param.MapParam;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableDataLoaderCountModeTest {
+
+    private final DataLoaderContext context = new DataLoaderContext(new LoaderRegistry(), null);
+
+    private static List<Integer> page(MapParam param, int total) {
+        return IntStream.rangeClosed(param.getOffset() + 1, Math.min(total, param.getOffset() + param.getLimit())).boxed().toList();
+    }
+
+    @Test
+    @DisplayName("COUNT: HAS_MORE выбирает limit+1 строк и не вызывает countFetcher")
+    void testHasMore() {
+        AtomicInteger counts = new AtomicInteger();
+        MapParam param = new MapParam(10);
+        param.setOffset(0);
+
+        DataResponse<Integer> response = TableDataLoader.<Integer>create(context)
+                .setMapParam(param)
+                .useToGetData(p -> page(p, 25))
+                .useToCount(p -> (long) counts.incrementAndGet())
+                .setCountMode(EnumCountMode.HAS_MORE)
+                .build();
+
+        assertEquals(10, response.items().size());
+        assertNull(response.total());
+        assertEquals("true", response.headers().get(Constant.X_PAGINATION_HAS_MORE));
+        assertFalse(response.headers().containsKey(Constant.X_PAGINATION_TOTAL_ENTRIES));
+        assertEquals(10, param.getLimit(), "limit восстанавливается после выборки");
+        assertEquals(0, counts.get());
+
+        param.setOffset(20);
+        DataResponse<Integer> last = TableDataLoader.<Integer>create(context)
+                .setMapParam(param)
+                .useToGetData(p -> page(p, 25))
+                .setCountMode(EnumCountMode.HAS_MORE)
+                .build();
+        assertEquals(5, last.items().size());
+        assertEquals("false", last.headers().get(Constant.X_PAGINATION_HAS_MORE));
+    }
+
+    @Test
+    @DisplayName("COUNT: CACHED считает один раз для всех страниц одной выборки")
+    void testCachedCount() {
+        AtomicInteger counts = new AtomicInteger();
+        for (int pageOffset : new int[]{0, 10, 20}) {
+            MapParam param = new MapParam(10);
+            param.setOffset(pageOffset);
+            param.addCriteria("status", "=", "NEW");
+            DataResponse<Integer> response = TableDataLoader.<Integer>create(context)
+                    .setMapParam(param)
+                    .useToGetData(p -> page(p, 25))
+                    .useToCount(countFetcher(counts))
+                    .cacheCount("orders")
+                    .build();
+            assertEquals(25L, response.total());
+        }
+        assertEquals(1, counts.get());
+
+        MapParam other = new MapParam(10);
+        other.addCriteria("status", "=", "DONE");
+        TableDataLoader.<Integer>create(context)
+                .setMapParam(other)
+                .useToGetData(p -> List.of())
+                .useToCount(countFetcher(counts))
+                .cacheCount("orders")
+                .build();
+        assertEquals(2, counts.get(), "Другие условия — отдельная запись кэша");
+
+        TableDataLoader.<Integer>create(context)
+                .setMapParam(other)
+                .useToGetData(p -> List.of())
+                .useToCount(countFetcher(counts))
+                .cacheCount("archive")
+                .build();
+        assertEquals(3, counts.get(), "Тот же запрос в другом регионе — отдельная запись кэша");
+
+        context.getCountCache().invalidate("archive");
+        assertEquals(2, context.getCountCache().size());
+        assertThrows(IllegalStateException.class, () -> TableDataLoader.<Integer>create(context)
+                .useToGetData(p -> List.of())
+                .useToCount(countFetcher(counts))
+                .setCountMode(EnumCountMode.CACHED)
+                .build());
+
+        context.getCountCache().invalidateAll();
+        assertEquals(0, context.getCountCache().size());
+    }
+
+    @Test
+    @DisplayName("COUNT: ESTIMATED использует оценщик и помечает итог заголовком")
+    void testEstimatedCount() {
+        DataResponse<Integer> response = TableDataLoader.<Integer>create(context)
+                .useToGetData(p -> List.of(1, 2))
+                .useToCount(p -> fail("Точный подсчёт не нужен"))
+                .useToEstimateCount(p -> 40_000_000L)
+                .setCountMode(EnumCountMode.ESTIMATED)
+                .build();
+
+        assertEquals(40_000_000L, response.total());
+        assertEquals("true", response.headers().get(Constant.X_PAGINATION_TOTAL_ESTIMATED));
+    }
+
+    private static Function<MapParam, Long> countFetcher(AtomicInteger counts) {
+        return p -> {
+            counts.incrementAndGet();
+            return 25L;
+        };
+    }
+}
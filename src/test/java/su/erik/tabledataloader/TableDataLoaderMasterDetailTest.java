@@ -6,6 +6,9 @@ import su.erik.tabledataloader.config.Constant;
 import su.erik.tabledataloader.dto.DataResponse;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -134,6 +137,27 @@ class TableDataLoaderMasterDetailTest {
         assertFalse(child1.containsKey(Constant.MASTER_ID), "Поле MASTER_ID должно быть удалено");
     }
 
+    @Test
+    @DisplayName("Master-Detail: Строковые ID в кавычках для ${item} (с экранированием), без кавычек при bindMasterListId()")
+    void testStringMasterIds() {
+        List<Map<String, Object>> masters = List.of(createMap(10, "A-1", "Parent A"), createMap(20, "O'B", "Parent B"));
+        List<List<Object>> quoted = new ArrayList<>();
+        List<List<Object>> bound = new ArrayList<>();
+
+        TableDataLoader.<Map<String, Object>>create()
+                .useToGetData(p -> masters)
+                .useChildList(p -> { quoted.add(List.copyOf(p.getMasterListId())); return List.of(); })
+                .build();
+        TableDataLoader.<Map<String, Object>>create()
+                .useToGetData(p -> masters)
+                .useChildList(p -> { bound.add(List.copyOf(p.getMasterListId())); return List.of(); })
+                .bindMasterListId()
+                .build();
+
+        assertEquals(List.of(List.of("'A-1'", "'O''B'")), quoted);
+        assertEquals(List.of(List.of("A-1", "O'B")), bound);
+    }
+
     @Test
     @DisplayName("Master-Detail: Игнорируется, если данные не Map")
     void testIgnoredForNonMap() {
@@ -146,4 +170,37 @@ class TableDataLoaderMasterDetailTest {
         // Ошибки нет, просто вернулся список строк
         assertEquals("String Data", response.items().getFirst());
     }
+
+    @Test
+    @DisplayName("Master-Detail: Дети запрашиваются порциями, в т.ч. параллельно")
+    void testChunkedChildFetch() {
+        List<Map<String, Object>> masters = new ArrayList<>();
+        List<Map<String, Object>> children = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            masters.add(createMap(i, i * 100, "Parent " + i));
+            children.add(createMap(i * 10, i * 100, "Child " + i));
+        }
+
+        AtomicInteger fetchCount = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            DataResponse<Map<String, Object>> response = TableDataLoader.<Map<String, Object>>create()
+                    .useToGetData(p -> masters)
+                    .useChildList(p -> {
+                        fetchCount.incrementAndGet();
+                        List<Object> ids = p.getMasterListId();
+                        assertTrue(ids.size() <= 2, "Порция не должна превышать размер chunk");
+                        return children.stream().filter(child -> ids.contains(child.get(Constant.MASTER_ID))).toList();
+                    })
+                    .setChildChunkSize(2)
+                    .parallelChildFetch(executor)
+                    .build();
+
+            assertEquals(3, fetchCount.get());
+            for (Map<String, Object> parent : response.items()) {
+                List<Map<String, Object>> expanded = (List<Map<String, Object>>) parent.get(Constant.EXPANDED_KEY);
+                assertEquals(1, expanded.size());
+                assertEquals(parent.get(Constant.MASTER_ID), expanded.getFirst().get(Constant.MASTER_ID));
+            }
+        }
+    }
 }
@@ -0,0 +1,89 @@
+package su.erik.tabledataloader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.cache.ResultCache;
+import su.erik.tabledataloader.context.DataLoaderContext;
+import su.erik.tabledataloader.dto.DataResponse;
+import su.erik.tabledataloader.param.MapParam;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableDataLoaderResultCacheTest {
+
+    private final DataLoaderContext context = new DataLoaderContext(new LoaderRegistry(), null);
+    private final AtomicInteger selects = new AtomicInteger();
+    private final AtomicInteger counts = new AtomicInteger();
+
+    private DataResponse<String> request(String status, String sortOrder) {
+        MapParam param = new MapParam(10);
+        param.setOffset(0);
+        param.addCriteria("status", "=", status);
+        param.addOrderBy("id", sortOrder);
+        return TableDataLoader.<String>create(context)
+                .setMapParam(param)
+                .useToGetData(p -> {
+                    selects.incrementAndGet();
+                    return List.of(status + "-1", status + "-2");
+                })
+                .useToCount(p -> (long) counts.incrementAndGet())
+                .cacheResult("orders")
+                .build();
+    }
+
+    @Test
+    @DisplayName("CACHE: Повторный запрос берёт страницу и total из кэша, вызывающий получает копию")
+    void testCachedPage() {
+        DataResponse<String> first = request("NEW", "ASC");
+        first.items().clear();
+        DataResponse<String> second = request("NEW", "ASC");
+
+        assertEquals(List.of("NEW-1", "NEW-2"), second.items());
+        assertEquals(1L, second.total());
+        assertEquals(1, selects.get());
+        assertEquals(1, counts.get());
+
+        request("NEW", "DESC");
+        request("DONE", "ASC");
+        assertEquals(3, selects.get(), "Другие сортировка или условия — другие ключи");
+
+        context.getResultCache().invalidate("orders");
+        request("NEW", "ASC");
+        assertEquals(4, selects.get());
+    }
+
+    @Test
+    @DisplayName("CACHE: Размер ограничен, вытесняется давно не читанная запись")
+    void testLruEviction() {
+        ResultCache cache = new ResultCache(60_000, 2);
+        cache.get("r", "a", () -> 1);
+        cache.get("r", "b", () -> 2);
+        cache.get("r", "a", () -> fail("a в кэше"));
+        cache.get("r", "c", () -> 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, (int) cache.get("r", "a", () -> -1));
+        assertEquals(20, (int) cache.get("r", "b", () -> 20), "b вытеснена");
+    }
+
+    @Test
+    @DisplayName("CACHE: Результат загрузки, во время которой регион сброшен, не сохраняется")
+    void testInvalidateDuringLoad() {
+        ResultCache cache = new ResultCache(60_000, 10);
+        assertEquals("stale", cache.get("orders", "q", () -> {
+            cache.invalidate("orders");
+            return "stale";
+        }));
+        assertEquals("fresh", cache.get("orders", "q", () -> "fresh"));
+        assertEquals("fresh", cache.get("orders", "q", () -> fail("fresh в кэше")));
+
+        assertEquals("other", cache.get("other", "q", () -> {
+            cache.invalidateAll();
+            return "other";
+        }));
+        assertEquals(0, cache.size());
+    }
+}
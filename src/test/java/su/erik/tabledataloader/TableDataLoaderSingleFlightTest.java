@@ -0,0 +1,88 @@
+package su.erik.tabledataloader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.EnumCountMode;
+import su.erik.tabledataloader.context.DataLoaderContext;
+import su.erik.tabledataloader.dto.DataResponse;
+import su.erik.tabledataloader.param.MapParam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableDataLoaderSingleFlightTest {
+
+    private final DataLoaderContext context = new DataLoaderContext(new LoaderRegistry(), null);
+    private final AtomicInteger selects = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final Function<MapParam, Iterable<String>> slowSelect = param -> {
+        selects.incrementAndGet();
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return List.of("user-" + param.getUserId());
+    };
+
+    private DataResponse<String> request(long userId) {
+        return request(userId, "users", EnumCountMode.EXACT);
+    }
+
+    private DataResponse<String> request(long userId, String region, EnumCountMode countMode) {
+        MapParam param = new MapParam(10);
+        param.setUserId(userId);
+        param.addOrderBy("id", "ASC");
+        return TableDataLoader.<String>create(context)
+                .setMapParam(param)
+                .useToGetData(slowSelect)
+                .useToCount(p -> 1L)
+                .setCountMode(countMode)
+                .singleFlight(region)
+                .build();
+    }
+
+    @Test
+    @DisplayName("SINGLE-FLIGHT: Одновременные одинаковые запросы выполняют одну выборку, пользователи, регионы и режимы разделены")
+    void testCoalescing() throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = Executors.newFixedThreadPool(6)) {
+            List<Future<DataResponse<String>>> sameUser = new ArrayList<>();
+            sameUser.add(executor.submit(() -> request(1L)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 2; i++) sameUser.add(executor.submit(() -> request(1L)));
+            Future<DataResponse<String>> otherUser = executor.submit(() -> request(2L));
+            Future<DataResponse<String>> otherRegion = executor.submit(() -> request(1L, "archive", EnumCountMode.EXACT));
+            Future<DataResponse<String>> otherMode = executor.submit(() -> request(1L, "users", EnumCountMode.HAS_MORE));
+
+            // Даём ожидающим вызовам подойти к уже идущей выборке
+            for (int i = 0; i < 100 && selects.get() < 4; i++) Thread.sleep(10);
+            Thread.sleep(100);
+            release.countDown();
+
+            List<DataResponse<String>> responses = new ArrayList<>();
+            for (Future<DataResponse<String>> future : sameUser) responses.add(future.get());
+            assertEquals(List.of("user-2"), otherUser.get().items());
+            assertEquals(List.of("user-1"), otherRegion.get().items());
+            assertNull(otherMode.get().total());
+
+            assertEquals(4, selects.get(), "Одна выборка на пользователя, регион и режим подсчёта");
+            for (DataResponse<String> response : responses) assertEquals(List.of("user-1"), response.items());
+            responses.getFirst().items().clear();
+            assertEquals(List.of("user-1"), responses.get(1).items(), "У каждого вызова своя копия");
+            assertEquals(0, context.getSingleFlight().inFlightCount());
+        }
+    }
+}
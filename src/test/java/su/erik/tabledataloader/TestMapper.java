@@ -8,5 +8,6 @@ import java.util.Map;
 @Mapper
 public interface TestMapper {
     List<Map<String, Object>> testSelect(MapParam param);
+    List<Map<String, Object>> testSelectCompiled(MapParam param);
     List<Map<String, Object>> selectChild(MapParam param);
 }
@@ -11,6 +11,7 @@ import su.erik.tabledataloader.LoaderRegistry;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -58,4 +59,34 @@ class ExportArchivingTest {
             assertNull(zis.getNextEntry(), "В архиве не должно быть других файлов");
         }
     }
+
+    @Test
+    @DisplayName("EXPORT: Потоковая архивация со сжатием на лету")
+    void testStreamingExportWithArchiving() throws Exception {
+        LoaderRegistry registry = new LoaderRegistry();
+        DataLoaderContext context = new DataLoaderContext(registry, null);
+
+        List<Map<String, Object>> data = List.of(
+                Map.of("id", 1, "name", "User1"),
+                Map.of("id", 2, "name", "User2")
+        );
+
+        ExportResource resource = TableDataLoader.<Map<String, Object>>create(context)
+                .useToGetData(param -> data)
+                .archiveResult(Deflater.BEST_SPEED)
+                .streamResult()
+                .build(CsvFileExporter.class, "report");
+
+        assertEquals("report.zip", resource.fileName());
+        assertFalse(resource.isSizeKnown(), "Размер потокового архива заранее неизвестен");
+
+        try (ZipInputStream zis = new ZipInputStream(resource.stream())) {
+            ZipEntry entry = zis.getNextEntry();
+            assertNotNull(entry);
+            assertEquals("report.csv", entry.getName());
+            String csvContent = new String(zis.readAllBytes());
+            assertTrue(csvContent.contains("User2"));
+            assertNull(zis.getNextEntry());
+        }
+    }
 }
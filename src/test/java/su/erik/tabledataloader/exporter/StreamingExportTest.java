@@ -0,0 +1,78 @@
+package su.erik.tabledataloader.exporter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.LoaderRegistry;
+import su.erik.tabledataloader.TableDataLoader;
+import su.erik.tabledataloader.context.DataLoaderContext;
+import su.erik.tabledataloader.dto.ExportResource;
+import su.erik.tabledataloader.exporter.csv.CsvFileExporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingExportTest {
+
+    private static final int ROW_COUNT = 50_000;
+
+    private final DataLoaderContext context = new DataLoaderContext(new LoaderRegistry(), null);
+
+    // Ленивый источник: строки генерируются по мере чтения, как у курсора MyBatis
+    private static Iterable<Map<String, Object>> generatedRows() {
+        return () -> new Iterator<>() {
+            private int row = 0;
+            @Override public boolean hasNext() { return row < ROW_COUNT; }
+            @Override public Map<String, Object> next() {
+                row++;
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("id", row);
+                map.put("name", "Name;" + row);
+                return map;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("EXPORT: Потоковый CSV читается через канал, размер неизвестен")
+    void testStreamingExportThroughPipe() throws Exception {
+        ExportResource resource = TableDataLoader.<Map<String, Object>>create(context)
+                .useToGetData(param -> generatedRows())
+                .streamResult()
+                .build(CsvFileExporter.class, "report");
+
+        assertEquals("report.csv", resource.fileName());
+        assertEquals(ExportResource.UNKNOWN_SIZE, resource.size());
+        assertFalse(resource.isSizeKnown());
+
+        try (InputStream inputStream = resource.stream()) {
+            String[] lines = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            assertEquals(ROW_COUNT + 1, lines.length);
+            assertEquals("id;name", lines[0]);
+            assertEquals("1;\"Name;1\"", lines[1]);
+            assertEquals(ROW_COUNT + ";\"Name;" + ROW_COUNT + "\"", lines[ROW_COUNT]);
+        }
+    }
+
+    @Test
+    @DisplayName("EXPORT: transferTo пишет строки напрямую в поток вызывающего")
+    void testStreamingExportTransferTo() throws Exception {
+        ExportResource resource = TableDataLoader.<Map<String, Object>>create(context)
+                .useToGetData(param -> List.of(Map.of("id", 1)))
+                .streamResult()
+                .build(CsvFileExporter.class, "report");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (InputStream inputStream = resource.stream()) {
+            long transferred = inputStream.transferTo(outputStream);
+            assertEquals(outputStream.size(), transferred);
+        }
+        assertEquals("id\n1\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,177 @@
+package su.erik.tabledataloader.importer.csv;
+
+import com.opencsv.bean.CsvBindByName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.EnumCsvParser;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.importer.checkpoint.FileCheckpointStore;
+import su.erik.tabledataloader.importer.checkpoint.ImportCheckpoint;
+import su.erik.tabledataloader.importer.loader.CsvFileLoader;
+import su.erik.tabledataloader.importer.model.ResultDTO;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointImportTest {
+
+    public static class RowDto {
+        @CsvBindByName(column = "id") private Long id;
+        @CsvBindByName(column = "comment") private String comment;
+    }
+
+    /**
+     * Маппер, фиксирующий каждый пакет.
+     */
+    private static class CommittingMapper extends MockMapper<RowDto> {
+        int commits = 0;
+
+        @Override
+        public boolean isBatchCommitSupported() {
+            return true;
+        }
+
+        @Override
+        public void commitBatch(Map<String, Object> customFilters) {
+            commits++;
+        }
+    }
+
+    /**
+     * Маппер, который падает на заданном по счёту пакете.
+     */
+    private static class FailingMapper extends CommittingMapper {
+        private final int failOnBatch;
+        private int batches = 0;
+
+        FailingMapper(int failOnBatch) {
+            this.failOnBatch = failOnBatch;
+        }
+
+        @Override
+        public void insertBatch(List<RowDto> batch, Map<String, Object> customFilters) {
+            if (++batches == failOnBatch) throw new IllegalStateException("Connection lost");
+            super.insertBatch(batch, customFilters);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV: Возобновление импорта с точки после последнего записанного пакета")
+    void testResumeFromCheckpoint() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoints");
+        Path file = Files.createTempFile("resumable", ".csv");
+        try {
+            StringBuilder csv = new StringBuilder("id;comment\r\n");
+            for (int i = 1; i <= 10; i++) {
+                csv.append(i).append(';').append(i % 4 == 0 ? "\"строка\r\n" + i + "\"" : "строка " + i).append("\r\n");
+                if (i == 5) csv.append("\r\n");
+            }
+            Files.writeString(file, csv.toString(), StandardCharsets.UTF_8);
+            FileCheckpointStore store = new FileCheckpointStore(directory);
+
+            Map<String, Object> filters = new HashMap<>();
+            filters.put(StandardParam.BATCH_SIZE.getKey(), 3);
+            filters.put(StandardParam.CHECKPOINT_STORE.getKey(), store);
+            filters.put(StandardParam.CSV_PARSER.getKey(), EnumCsvParser.BUILTIN);
+            FailingMapper failingMapper = new FailingMapper(3);
+            assertThrows(RuntimeException.class, () -> new CsvFileLoader<>(RowDto.class, failingMapper, filters)
+                    .importFile(file, "data.csv", Files.size(file), "Entity", 1L));
+            assertEquals(6, failingMapper.getImportedItems().size());
+            assertEquals(2, failingMapper.commits);
+
+            ImportCheckpoint checkpoint = store.load(1L);
+            assertNotNull(checkpoint);
+            assertEquals(6, checkpoint.rowNumber());
+            assertEquals(csv.toString().getBytes(StandardCharsets.UTF_8).length - csv.substring(csv.indexOf("7;")).getBytes(StandardCharsets.UTF_8).length,
+                    checkpoint.byteOffset());
+            assertEquals(List.of(checkpoint), store.list());
+
+            Map<String, Object> resumeFilters = new HashMap<>();
+            resumeFilters.put(StandardParam.BATCH_SIZE.getKey(), 3);
+            resumeFilters.put(StandardParam.CHECKPOINT_STORE.getKey(), store);
+            resumeFilters.put(StandardParam.RESUME_UPLOAD_ID.getKey(), 1L);
+            resumeFilters.put(StandardParam.CSV_PARSER.getKey(), EnumCsvParser.BUILTIN);
+            CommittingMapper mapper = new CommittingMapper();
+            ResultDTO result = new CsvFileLoader<>(RowDto.class, mapper, resumeFilters)
+                    .importFile(file, "data.csv", Files.size(file), "Entity", 1L);
+
+            assertFalse(mapper.isHeaderInserted(), "Заголовок загрузки не создаётся повторно");
+            assertEquals(List.of(7L, 8L, 9L, 10L), mapper.getImportedItems().stream().map(row -> row.id).toList());
+            assertEquals("строка\r\n8", mapper.getImportedItems().get(1).comment);
+            assertEquals(10, result.count());
+            assertEquals(1L, result.uploadId());
+            assertEquals(4, result.stats().rowsInserted());
+            assertNull(store.load(1L), "Точка удаляется после успешного импорта");
+        } finally {
+            Files.deleteIfExists(file);
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV: Возобновление без точки или из потока отклоняется")
+    void testResumeRejected() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoints");
+        Path file = Files.createTempFile("resumable", ".csv");
+        try {
+            Files.writeString(file, "id;comment\n1;a\n", StandardCharsets.UTF_8);
+            Map<String, Object> filters = new HashMap<>();
+            filters.put(StandardParam.CHECKPOINT_STORE.getKey(), new FileCheckpointStore(directory));
+            filters.put(StandardParam.RESUME_UPLOAD_ID.getKey(), 5L);
+            filters.put(StandardParam.CSV_PARSER.getKey(), EnumCsvParser.BUILTIN);
+            CsvFileLoader<RowDto> loader = new CsvFileLoader<>(RowDto.class, new CommittingMapper(), filters);
+
+            assertThrows(RuntimeException.class, () -> loader.importFile(file, "data.csv", Files.size(file), "Entity", 1L));
+            assertThrows(IllegalStateException.class,
+                    () -> loader.importFile(Files.newInputStream(file), "data.csv", Files.size(file), "Entity", 1L));
+
+            // Точки ставит CsvTokenizer, с opencsv значения разбирались бы иначе
+            Map<String, Object> opencsvFilters = new HashMap<>(filters);
+            opencsvFilters.remove(StandardParam.CSV_PARSER.getKey());
+            CommittingMapper mapper = new CommittingMapper();
+            IllegalStateException rejected = assertThrows(IllegalStateException.class, () -> new CsvFileLoader<>(RowDto.class, mapper, opencsvFilters)
+                    .importFile(file, "data.csv", Files.size(file), "Entity", 1L));
+            assertTrue(rejected.getMessage().contains("BUILTIN"));
+            assertFalse(mapper.isHeaderInserted());
+        } finally {
+            Files.deleteIfExists(file);
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV: Точки возобновления без фиксации пакетов маппером отклоняются")
+    void testCheckpointsRequireBatchCommit() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoints");
+        Path file = Files.createTempFile("resumable", ".csv");
+        try {
+            Files.writeString(file, "id;comment\n1;a\n", StandardCharsets.UTF_8);
+            Map<String, Object> filters = new HashMap<>();
+            filters.put(StandardParam.CHECKPOINT_STORE.getKey(), new FileCheckpointStore(directory));
+            MockMapper<RowDto> mapper = new MockMapper<>();
+
+            assertThrows(IllegalStateException.class, () -> new CsvFileLoader<>(RowDto.class, mapper, filters)
+                    .importFile(file, "data.csv", Files.size(file), "Entity", 1L));
+            assertFalse(mapper.isHeaderInserted());
+        } finally {
+            Files.deleteIfExists(file);
+            deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package su.erik.tabledataloader.importer.csv;
+
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvBindByPosition;
+import com.opencsv.exceptions.CsvDataTypeMismatchException;
+import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.importer.annotation.DynamicColumn;
+import su.erik.tabledataloader.importer.annotation.ImporterBindByIndex;
+import su.erik.tabledataloader.importer.model.ImportDynamic;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledBeanBinderTest {
+
+    public static class PositionDto {
+        @CsvBindByPosition(position = 0) private Long id;
+        @CsvBindByPosition(position = 2) private BigDecimal price;
+        @CsvBindByPosition(position = 3) private int quantity;
+        @CsvBindByPosition(position = 1) private String name;
+        private int setterCalls;
+
+        public void setName(String name) { this.name = name; setterCalls++; }
+    }
+
+    public static class HeaderDto {
+        @CsvBindByName(column = "Code") private String code;
+        @CsvBindByName private String date;
+    }
+
+    public static class FlagDto {
+        @CsvBindByPosition(position = 0) private Boolean active;
+        @CsvBindByPosition(position = 1) private boolean deleted;
+    }
+
+    public static class UnsupportedDto {
+        @CsvBindByName(column = "when") private Date when;
+    }
+
+    public static class LocalDateDto {
+        @CsvBindByName private LocalDate date;
+    }
+
+    @DynamicColumn(startsFromIndex = 1)
+    public static class DynamicDto extends ImportDynamic<Double> {
+        private String code;
+        public DynamicDto(Integer size) { super(size); }
+        @ImporterBindByIndex(0) public void setCode(String value) { this.code = value; }
+        @Override public void setterDynamicValue(String value, Integer index) { dynamicValues.set(index, Double.valueOf(value)); }
+    }
+
+    @Test
+    @DisplayName("Binder: Привязка по позициям, запись в приватные поля и через сеттер")
+    void testPositionBinding() throws Exception {
+        CompiledBeanBinder<PositionDto> binder = CompiledBeanBinder.of(PositionDto.class);
+        assertTrue(binder.isSupported());
+        assertFalse(binder.isHeaderBound());
+        assertSame(binder, CompiledBeanBinder.of(PositionDto.class), "Binder кешируется на класс");
+
+        PositionDto dto = binder.forPositions().bind(new String[]{" 42 ", "Аспирин", "10.50", "", "лишняя"});
+        assertEquals(42L, dto.id);
+        assertEquals("Аспирин", dto.name);
+        assertEquals(1, dto.setterCalls);
+        assertEquals(new BigDecimal("10.50"), dto.price);
+        assertEquals(0, dto.quantity, "Пустое значение не заполняет примитив");
+
+        PositionDto shortLine = binder.forPositions().bind(new String[]{"1"});
+        assertEquals(1L, shortLine.id);
+        assertNull(shortLine.name);
+    }
+
+    @Test
+    @DisplayName("Binder: Привязка по заголовку без учёта регистра и проверка длины строки")
+    void testHeaderBinding() throws Exception {
+        CompiledBeanBinder<HeaderDto> binder = CompiledBeanBinder.of(HeaderDto.class);
+        assertTrue(binder.isHeaderBound());
+
+        CompiledBeanBinder.LineBinder<HeaderDto> lineBinder = binder.forHeader(new String[]{"\uFEFFDATE", "code"});
+        HeaderDto dto = lineBinder.bind(new String[]{"2024-03-01", "A-1"});
+        assertEquals("A-1", dto.code);
+        assertEquals("2024-03-01", dto.date);
+
+        assertThrows(CsvRequiredFieldEmptyException.class, () -> lineBinder.bind(new String[]{"2024-03-01"}));
+    }
+
+    @Test
+    @DisplayName("Binder: Boolean как в opencsv — 1/yes/on истинны, мусор отклоняется")
+    void testBooleanBinding() throws Exception {
+        CompiledBeanBinder.LineBinder<FlagDto> lineBinder = CompiledBeanBinder.of(FlagDto.class).forPositions();
+        for (String value : new String[]{"1", "yes", "Y", "on", " TRUE "}) {
+            assertTrue(lineBinder.bind(new String[]{value, value}).active, value);
+        }
+        for (String value : new String[]{"0", "no", "N", "off", "false"}) {
+            FlagDto dto = lineBinder.bind(new String[]{value, value});
+            assertFalse(dto.active, value);
+            assertFalse(dto.deleted, value);
+        }
+        CsvDataTypeMismatchException mismatch = assertThrows(CsvDataTypeMismatchException.class, () -> lineBinder.bind(new String[]{"maybe", "0"}));
+        assertEquals(Boolean.class, mismatch.getDestinationClass());
+    }
+
+    @Test
+    @DisplayName("Binder: Неподдерживаемый тип поля — откат на opencsv")
+    void testUnsupportedFallback() {
+        assertFalse(CompiledBeanBinder.of(UnsupportedDto.class).isSupported());
+        assertFalse(CompiledBeanBinder.of(LocalDateDto.class).isSupported(), "Даты (CsvDate) разбирает opencsv");
+    }
+
+    @Test
+    @DisplayName("Binder: DynamicColumn — конструктор и сеттеры по индексу")
+    void testDynamicBinding() {
+        CompiledBeanBinder<DynamicDto> binder = CompiledBeanBinder.of(DynamicDto.class);
+        assertTrue(binder.isSupported());
+
+        DynamicDto dto = binder.newDynamicInstance(2);
+        binder.setIndexed(dto, 0, "X1");
+        binder.setIndexed(dto, 5, "ignored");
+        assertEquals("X1", dto.code);
+        assertEquals(2, dto.dynamicValues.size());
+    }
+}
@@ -3,12 +3,16 @@ package su.erik.tabledataloader.importer.csv;
 import com.opencsv.bean.CsvBindByName;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.EnumCsvParser;
+import su.erik.tabledataloader.config.StandardParam;
 import su.erik.tabledataloader.importer.loader.CsvFileLoader;
 import su.erik.tabledataloader.importer.model.ResultDTO;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -43,4 +47,55 @@ class CsvFileLoaderTest {
         assertEquals(1L, result.uploadId());
         assertEquals(2, mapper.getImportedItems().size());
     }
+
+    @Test
+    @DisplayName("CSV: Пакетная вставка с flush на границе каждого пакета")
+    void testBatchInsert() {
+        String csvData = "ID;Name\n1;A\n2;B\n3;C\n4;D\n5;E";
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
+
+        List<Integer> batchSizes = new ArrayList<>();
+        int[] flushCount = {0};
+        MockMapper<TestCsvDTO> mapper = new MockMapper<>() {
+            @Override
+            public void insertBatch(List<TestCsvDTO> batch, Map<String, Object> customFilters) {
+                batchSizes.add(batch.size());
+                super.insertBatch(batch, customFilters);
+            }
+
+            @Override
+            public void flush() {
+                flushCount[0]++;
+            }
+        };
+        Map<String, Object> filters = new HashMap<>();
+        filters.put(StandardParam.BATCH_SIZE.getKey(), 2);
+
+        CsvFileLoader<TestCsvDTO> importer = new CsvFileLoader<>(TestCsvDTO.class, mapper, filters);
+        ResultDTO result = importer.importFile(inputStream, "test.csv", csvData.length(), "Entity", 1L);
+
+        assertEquals(5, result.count());
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(3, flushCount[0]);
+        assertEquals(5, mapper.getImportedItems().size());
+        assertEquals("E", mapper.getImportedItems().get(4).getName());
+    }
+
+    @Test
+    @DisplayName("CSV: Встроенный разборщик (EnumCsvParser.BUILTIN)")
+    void testBuiltinParser() {
+        String csvData = "ID;Name\n1;\"Иванов; Иван\"\n2;\"O\"\"Brien\"\n";
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8));
+
+        MockMapper<TestCsvDTO> mapper = new MockMapper<>();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put(StandardParam.CSV_PARSER.getKey(), EnumCsvParser.BUILTIN);
+
+        ResultDTO result = new CsvFileLoader<>(TestCsvDTO.class, mapper, filters)
+                .importFile(inputStream, "test.csv", csvData.length(), "Entity", 1L);
+
+        assertEquals(2, result.count());
+        assertEquals("Иванов; Иван", mapper.getImportedItems().get(0).getName());
+        assertEquals("O\"Brien", mapper.getImportedItems().get(1).getName());
+    }
 }
@@ -0,0 +1,69 @@
+package su.erik.tabledataloader.importer.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTokenizerTest {
+
+    private List<List<String>> parse(String data, int bufferSize) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(data), ';', bufferSize)) {
+            String[] record;
+            while ((record = tokenizer.readNext()) != null) {
+                records.add(List.of(record));
+            }
+        }
+        return records;
+    }
+
+    @Test
+    @DisplayName("Tokenizer: Кавычки, удвоенные кавычки, разделитель и перевод строки внутри значения")
+    void testQuotedFields() throws IOException {
+        String data = "id;name;comment\r\n1;\"Иванов; Иван\";\"сказал \"\"да\"\"\"\n2;\"много\nстрок\";\n\n3;\"\";x";
+        for (int bufferSize : new int[]{16, 64 * 1024}) {
+            List<List<String>> records = parse(data, bufferSize);
+            assertEquals(5, records.size());
+            assertEquals(List.of("id", "name", "comment"), records.get(0));
+            assertEquals(List.of("1", "Иванов; Иван", "сказал \"да\""), records.get(1));
+            assertEquals(List.of("2", "много\nстрок", ""), records.get(2));
+            assertEquals(List.of(""), records.get(3));
+            assertEquals(List.of("3", "", "x"), records.get(4));
+        }
+    }
+
+    @Test
+    @DisplayName("Tokenizer: Значение длиннее буфера, переводы строк CR")
+    void testLongValueAndCarriageReturn() throws IOException {
+        String longValue = "x".repeat(1000);
+        List<List<String>> records = parse("a;" + longValue + "\rb;c\r", 16);
+        assertEquals(2, records.size());
+        assertEquals(longValue, records.get(0).get(1));
+        assertEquals(List.of("b", "c"), records.get(1));
+    }
+
+    @Test
+    @DisplayName("Tokenizer: Массив записи переиспользуется при одинаковом числе колонок")
+    void testRecordReuse() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("1;2\n3;4\n5\n"), ';')) {
+            String[] first = tokenizer.readNext();
+            String[] second = tokenizer.readNext();
+            assertSame(first, second);
+            assertEquals("3", second[0]);
+            assertEquals(1, tokenizer.readNext().length);
+            assertNull(tokenizer.readNext());
+        }
+    }
+
+    @Test
+    @DisplayName("Tokenizer: Незакрытая кавычка в конце данных — ошибка")
+    void testUnterminatedQuote() {
+        assertThrows(IOException.class, () -> parse("1;\"abc", 16));
+    }
+}
@@ -0,0 +1,86 @@
+package su.erik.tabledataloader.importer.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.importer.EncodingDetector;
+import su.erik.tabledataloader.importer.loader.CsvFileLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EncodingDetectorTest {
+
+    private static String readAll(Reader reader) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (reader) {
+            reader.transferTo(writer);
+        }
+        return writer.toString();
+    }
+
+    @Test
+    @DisplayName("Encoding: ASCII, UTF-8 и BOM определяются без эвристики")
+    void testFastPath() {
+        byte[] ascii = "id;name\n1;abc\n".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detectCharset(ascii, ascii.length));
+
+        byte[] utf8 = "id;name\n1;Тест 😀\n".getBytes(StandardCharsets.UTF_8);
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detectCharset(utf8, utf8.length));
+
+        byte[] utf16 = "﻿id".getBytes(StandardCharsets.UTF_16LE);
+        assertEquals(StandardCharsets.UTF_16, EncodingDetector.detectCharset(utf16, utf16.length));
+
+        // Выборка 4KB оборвала двухбайтовый символ — файл всё равно считается UTF-8
+        byte[] truncated = ("a".repeat(4095) + "Ж").getBytes(StandardCharsets.UTF_8);
+        assertEquals(StandardCharsets.UTF_8, EncodingDetector.detectCharset(truncated, 4096));
+    }
+
+    @Test
+    @DisplayName("Encoding: ASCII в первых 4KB не делает файл UTF-8 — CP1251 после выборки читается без потерь")
+    void testAsciiSampleKeepsDefault() throws IOException {
+        Charset cp1251 = Charset.forName("windows-1251");
+        String text = "id;name\n" + "1;abc\n".repeat(1000) + "2;Тест\n";
+        byte[] data = text.getBytes(cp1251);
+
+        assertEquals(cp1251, EncodingDetector.detectCharset(data, 4096));
+        assertEquals(text, readAll(EncodingDetector.getReader(new ByteArrayInputStream(data))));
+    }
+
+    @Test
+    @DisplayName("Encoding: Reader декодирует файл длиннее буфера, в том числе посимвольно")
+    void testReader() throws IOException {
+        String text = "строка 😀;\n".repeat(20_000);
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(text, readAll(EncodingDetector.getReader(new ByteArrayInputStream(data))));
+
+        StringBuilder single = new StringBuilder();
+        try (Reader reader = EncodingDetector.getReader(new ByteArrayInputStream("я😀".getBytes(StandardCharsets.UTF_8)))) {
+            for (int c = reader.read(); c >= 0; c = reader.read()) single.append((char) c);
+        }
+        assertEquals("я😀", single.toString());
+    }
+
+    @Test
+    @DisplayName("Encoding: Заданная кодировка импорта отключает определение")
+    void testCharsetHint() {
+        String csvData = "name;value\nТест;100";
+        byte[] bytes = csvData.getBytes(Charset.forName("windows-1251"));
+        MockMapper<CsvFileLoaderStrategyTest.NameDto> mapper = new MockMapper<>();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put(StandardParam.CHARSET.getKey(), "windows-1251");
+
+        new CsvFileLoader<>(CsvFileLoaderStrategyTest.NameDto.class, mapper, filters)
+                .importFile(new ByteArrayInputStream(bytes), "test.csv", bytes.length, "Entity", 1L);
+
+        assertEquals("Тест", mapper.getImportedItems().getFirst().getName());
+    }
+}
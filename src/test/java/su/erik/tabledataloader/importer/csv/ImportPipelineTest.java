@@ -0,0 +1,105 @@
+package su.erik.tabledataloader.importer.csv;
+
+import com.opencsv.bean.CsvBindByName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.importer.loader.CsvFileLoader;
+import su.erik.tabledataloader.importer.model.ImportStats;
+import su.erik.tabledataloader.importer.model.ResultDTO;
+import su.erik.tabledataloader.importer.pipeline.ImportPipelineConfig;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportPipelineTest {
+
+    public static class RowDto {
+        @CsvBindByName(column = "id") private Long id;
+        @CsvBindByName(column = "name") private String name;
+    }
+
+    /**
+     * Запоминает потоки, из которых вызывается запись в БД.
+     */
+    private static class ThreadRecordingMapper extends MockMapper<RowDto> {
+        private final Set<Thread> writerThreads = new HashSet<>();
+        private int batches = 0;
+
+        @Override
+        public void insertBatch(List<RowDto> batch, Map<String, Object> customFilters) {
+            writerThreads.add(Thread.currentThread());
+            batches++;
+            super.insertBatch(batch, customFilters);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV: Конвейерный импорт сохраняет порядок строк и пишет в БД из вызывающего потока")
+    void testPipelinedImport() {
+        StringBuilder csv = new StringBuilder("id;name\n");
+        for (int i = 1; i <= 3000; i++) {
+            csv.append(i).append(";имя ").append(i).append('\n');
+            if (i % 100 == 0) csv.append('\n');
+        }
+
+        ThreadRecordingMapper mapper = new ThreadRecordingMapper();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put(StandardParam.BATCH_SIZE.getKey(), 100);
+        // Маленькие блоки и очереди, чтобы стадии действительно ждали друг друга
+        filters.put(StandardParam.IMPORT_PIPELINE.getKey(), new ImportPipelineConfig(256, 1, 1));
+
+        CsvFileLoader<RowDto> loader = new CsvFileLoader<>(RowDto.class, mapper, filters);
+        byte[] data = csv.toString().getBytes(StandardCharsets.UTF_8);
+        ResultDTO result = loader.importFile(new ByteArrayInputStream(data), "data.csv", data.length, "Entity", 1L);
+
+        assertEquals(3000, result.count());
+        List<RowDto> items = mapper.getImportedItems();
+        assertEquals(3000, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i + 1L, items.get(i).id);
+        }
+        assertEquals("имя 3000", items.getLast().name);
+        assertTrue(mapper.isFinished());
+        assertEquals(Set.of(Thread.currentThread()), mapper.writerThreads);
+
+        assertNotNull(result.stats());
+        assertEquals(30, result.stats().batches());
+        assertEquals(mapper.batches, result.stats().batches());
+        assertTrue(result.stats().writeNanos() >= 0);
+    }
+
+    @Test
+    @DisplayName("CSV: Без настроек конвейера время стадий конвейера не заполняется")
+    void testSequentialImportHasNoStats() {
+        byte[] data = "id;name\n1;a\n".getBytes(StandardCharsets.UTF_8);
+        CsvFileLoader<RowDto> loader = new CsvFileLoader<>(RowDto.class, new MockMapper<>(), new HashMap<>());
+        ResultDTO result = loader.importFile(new ByteArrayInputStream(data), "data.csv", data.length, "Entity", 1L);
+
+        assertEquals(1, result.count());
+        assertEquals(0, result.stats().readNanos());
+        assertEquals(0, result.stats().writerIdleNanos());
+    }
+
+    @Test
+    @DisplayName("CSV: Сводка последовательного импорта")
+    void testSequentialImportStats() {
+        byte[] data = "id;name\n1;a\n\n2;b\n".getBytes(StandardCharsets.UTF_8);
+        CsvFileLoader<RowDto> loader = new CsvFileLoader<>(RowDto.class, new MockMapper<>(), new HashMap<>());
+        ResultDTO result = loader.importFile(new ByteArrayInputStream(data), "data.csv", data.length, "Entity", 1L);
+
+        assertEquals(2, result.count());
+        ImportStats stats = result.stats();
+        assertEquals(data.length, stats.bytesRead());
+        assertEquals(2, stats.rowsParsed());
+        assertEquals(2, stats.rowsInserted());
+        assertTrue(stats.elapsedNanos() >= stats.writeNanos());
+    }
+}
@@ -0,0 +1,124 @@
+package su.erik.tabledataloader.importer.csv;
+
+import com.opencsv.bean.CsvBindByName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.config.EnumCsvParser;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.importer.loader.CsvFileLoader;
+import su.erik.tabledataloader.importer.model.ResultDTO;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCsvImportTest {
+
+    public static class RowDto {
+        @CsvBindByName(column = "id") private Long id;
+        @CsvBindByName(column = "comment") private String comment;
+    }
+
+    private static String buildCsv(int rows) {
+        StringBuilder csv = new StringBuilder("\uFEFFid;comment\r\n");
+        for (int i = 1; i <= rows; i++) {
+            // Каждая пятая строка с переводом строки и разделителем внутри кавычек
+            String comment = (i % 5 == 0) ? "\"строка " + i + ";\nпродолжение \"\"" + i + "\"\"\"" : "строка " + i;
+            csv.append(i).append(';').append(comment).append(i % 7 == 0 ? "\n" : "\r\n");
+        }
+        return csv.toString();
+    }
+
+    @Test
+    @DisplayName("CSV: Параллельный разбор кусками сохраняет порядок строк и count")
+    void testParallelImportKeepsOrder() throws IOException {
+        Path file = Files.createTempFile("parallel-csv", ".csv");
+        try {
+            Files.writeString(file, buildCsv(5000), StandardCharsets.UTF_8);
+
+            MockMapper<RowDto> mapper = new MockMapper<>();
+            Map<String, Object> filters = new HashMap<>();
+            filters.put(StandardParam.PARSE_PARALLELISM.getKey(), 4);
+            filters.put(StandardParam.BATCH_SIZE.getKey(), 64);
+            filters.put(StandardParam.CSV_PARSER.getKey(), EnumCsvParser.BUILTIN);
+
+            CsvFileLoader<RowDto> loader = new CsvFileLoader<>(RowDto.class, mapper, filters) {
+                @Override
+                protected long getParallelChunkSize() {
+                    return 4096;
+                }
+            };
+            ResultDTO result = loader.importFile(file, "big.csv", Files.size(file), "Entity", 1L);
+
+            assertEquals(5000, result.count());
+            List<RowDto> items = mapper.getImportedItems();
+            assertEquals(5000, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                assertEquals(i + 1L, items.get(i).id);
+            }
+            assertEquals("строка 10;\nпродолжение \"10\"", items.get(9).comment);
+            assertTrue(mapper.isFinished());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<String> importComments(Path file, Integer parallelism, EnumCsvParser parser) throws IOException {
+        MockMapper<RowDto> mapper = new MockMapper<>();
+        Map<String, Object> filters = new HashMap<>();
+        if (parallelism != null) filters.put(StandardParam.PARSE_PARALLELISM.getKey(), parallelism);
+        if (parser != null) filters.put(StandardParam.CSV_PARSER.getKey(), parser);
+        CsvFileLoader<RowDto> loader = new CsvFileLoader<>(RowDto.class, mapper, filters) {
+            @Override
+            protected long getParallelChunkSize() {
+                return 16;
+            }
+        };
+        loader.importFile(file, "escapes.csv", Files.size(file), "Entity", 1L);
+        return mapper.getImportedItems().stream().map(row -> row.id + "=" + row.comment).toList();
+    }
+
+    @Test
+    @DisplayName("CSV: parseParallelism не меняет значения с обратным слэшем и кавычками")
+    void testParallelMatchesSequential() throws IOException {
+        Path file = Files.createTempFile("escapes-csv", ".csv");
+        try {
+            Files.writeString(file, "id;comment\n1;\"a\\\"b\"\n2;C:\\x\n3; \"c\"\n4;\"d\"\"e\"\n", StandardCharsets.UTF_8);
+
+            assertEquals(importComments(file, null, null), importComments(file, 4, null), "opencsv: параллельный режим не включается");
+            assertEquals(importComments(file, null, EnumCsvParser.BUILTIN), importComments(file, 4, EnumCsvParser.BUILTIN));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV: Границы записей не попадают внутрь значений в кавычках")
+    void testBoundaryScanner() throws IOException {
+        Path file = Files.createTempFile("boundary-csv", ".csv");
+        try {
+            String csv = "a;\"x\ny\"\rb;\"\"\"q\"\"\n\"\nc\r\n";
+            Files.writeString(file, csv, StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                CsvRecordBoundaryScanner scanner = new CsvRecordBoundaryScanner(channel, (byte) ';', 0);
+                List<Long> boundaries = new ArrayList<>();
+                long boundary;
+                while ((boundary = scanner.nextBoundary(1)) < channel.size()) {
+                    boundaries.add(boundary);
+                }
+                assertEquals(List.of((long) csv.indexOf('b'), (long) csv.indexOf('c')), boundaries);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
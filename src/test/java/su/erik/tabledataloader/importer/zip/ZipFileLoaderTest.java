@@ -0,0 +1,285 @@
+package su.erik.tabledataloader.importer.zip;
+
+import com.opencsv.bean.CsvBindByName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import su.erik.tabledataloader.LoaderRegistry;
+import su.erik.tabledataloader.config.StandardParam;
+import su.erik.tabledataloader.importer.ImportListener;
+import su.erik.tabledataloader.importer.ImportMapper;
+import su.erik.tabledataloader.importer.loader.CsvFileLoader;
+import su.erik.tabledataloader.importer.loader.ZipFileLoader;
+import su.erik.tabledataloader.importer.model.ImportStats;
+import su.erik.tabledataloader.importer.model.ResultDTO;
+import su.erik.tabledataloader.importer.model.UploadDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipFileLoaderTest {
+
+    public static class RegionDTO {
+        @CsvBindByName(column = "ID")
+        private Long id;
+        @CsvBindByName(column = "Region")
+        private String region;
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        public String getRegion() { return region; }
+        public void setRegion(String region) { this.region = region; }
+    }
+
+    /**
+     * Потокобезопасный маппер: запоминает uploadId, с которым вставлялась каждая запись.
+     */
+    private static class ConcurrentMapper implements ImportMapper<RegionDTO> {
+        private final AtomicLong sequence = new AtomicLong();
+        private final Map<String, Long> uploadIdByRegion = new ConcurrentHashMap<>();
+        private final Set<Map<String, Object>> filterMaps = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<Long> headerSizes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void insertHeader(UploadDTO uploadDTO) {
+            uploadDTO.setId(sequence.incrementAndGet());
+            headerSizes.add(uploadDTO.getSize());
+        }
+        @Override public void createTempTable(List<String> headers, String tempTableName) { }
+        @Override
+        public void insert(Map<String, Object> customFilters) {
+            RegionDTO dto = (RegionDTO) customFilters.get("importDTO");
+            uploadIdByRegion.put(dto.getRegion() + "#" + dto.getId(), (Long) customFilters.get("uploadId"));
+            synchronized (filterMaps) { filterMaps.add(customFilters); }
+        }
+        @Override public void delete(long uploadId) { }
+        @Override public void finish(Map<String, Object> customFilters) { }
+        @Override public void flush() { }
+    }
+
+    private byte[] createArchive(int entryCount, int rowsPerEntry) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+            zipStream.putNextEntry(new ZipEntry("regions/"));
+            zipStream.closeEntry();
+            for (int entry = 1; entry <= entryCount; entry++) {
+                zipStream.putNextEntry(new ZipEntry("regions/region" + entry + ".csv"));
+                StringBuilder csv = new StringBuilder("ID;Region\n");
+                for (int row = 1; row <= rowsPerEntry; row++) csv.append(row).append(";R").append(entry).append('\n');
+                zipStream.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+                zipStream.closeEntry();
+            }
+            zipStream.putNextEntry(new ZipEntry("readme.unknown"));
+            zipStream.write("skip me".getBytes(StandardCharsets.UTF_8));
+            zipStream.closeEntry();
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    @DisplayName("ZIP: Параллельный импорт файлов архива со своими customFilters")
+    void testParallelImport() throws IOException {
+        byte[] archive = createArchive(6, 50);
+        ConcurrentMapper mapper = new ConcurrentMapper();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("loaderRegistry", new LoaderRegistry());
+        filters.put(StandardParam.ARCHIVE_PARALLELISM.getKey(), 3);
+
+        ZipFileLoader loader = new ZipFileLoader(RegionDTO.class, mapper, filters);
+        ResultDTO result = loader.importFile(new ByteArrayInputStream(archive), "regions.zip", archive.length, "Entity", 1L);
+
+        assertEquals(300, result.count());
+        assertEquals(300, mapper.uploadIdByRegion.size());
+        // Записи одного файла вставлены с его собственным uploadId
+        for (int entry = 1; entry <= 6; entry++) {
+            String region = "R" + entry;
+            long distinctIds = mapper.uploadIdByRegion.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(region + "#")).map(Map.Entry::getValue).distinct().count();
+            assertEquals(1, distinctIds);
+        }
+        assertEquals(6, mapper.uploadIdByRegion.values().stream().distinct().count());
+        assertEquals(6, mapper.filterMaps.size());
+        assertFalse(mapper.filterMaps.contains(filters), "Исходный customFilters не должен изменяться воркерами");
+        assertFalse(filters.containsKey("uploadId"));
+    }
+
+    @Test
+    @DisplayName("ZIP: Элементы архива разбираются загрузчиками реестра, создавшего загрузчик")
+    void testOwningRegistry() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+            zipStream.putNextEntry(new ZipEntry("regions.dat"));
+            zipStream.write("ID;Region\n1;R1\n2;R2\n".getBytes(StandardCharsets.UTF_8));
+            zipStream.closeEntry();
+        }
+        byte[] archive = outputStream.toByteArray();
+        LoaderRegistry registry = new LoaderRegistry();
+        registry.registerLoader("dat", CsvFileLoader.class);
+        Map<String, Object> filters = new HashMap<>();
+
+        ResultDTO result = registry.createLoader("zip", RegionDTO.class, new ConcurrentMapper(), filters)
+                .importFile(new ByteArrayInputStream(archive), "regions.zip", archive.length, "Entity", 1L);
+
+        assertEquals(2, result.count());
+        assertTrue(filters.isEmpty(), "filters вызывающего не меняются");
+        assertThrows(IllegalStateException.class, () -> new ZipFileLoader(RegionDTO.class, new ConcurrentMapper(), new HashMap<>())
+                .importFile(new ByteArrayInputStream(archive), "regions.zip", archive.length, "Entity", 1L));
+    }
+
+    @Test
+    @DisplayName("ZIP: Последовательный импорт по умолчанию")
+    void testSequentialImport() throws IOException {
+        byte[] archive = createArchive(3, 10);
+        ConcurrentMapper mapper = new ConcurrentMapper();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("loaderRegistry", new LoaderRegistry());
+
+        ResultDTO result = new ZipFileLoader(RegionDTO.class, mapper, filters)
+                .importFile(new ByteArrayInputStream(archive), "regions.zip", archive.length, "Entity", 1L);
+
+        assertEquals(30, result.count());
+        assertEquals(3L, result.uploadId());
+    }
+
+    @Test
+    @DisplayName("ZIP: Импорт архива с диска через ZipFile (размеры известны, параллельно без временных файлов)")
+    void testImportFromPath() throws IOException {
+        Path archiveFile = Files.createTempFile("zip-loader-test", ".zip");
+        try {
+            Files.write(archiveFile, createArchive(4, 20));
+            for (int parallelism : new int[]{1, 4}) {
+                ConcurrentMapper mapper = new ConcurrentMapper();
+                Map<String, Object> filters = new HashMap<>();
+                filters.put("loaderRegistry", new LoaderRegistry());
+                filters.put(StandardParam.ARCHIVE_PARALLELISM.getKey(), parallelism);
+
+                ResultDTO result = new ZipFileLoader(RegionDTO.class, mapper, filters)
+                        .importFile(archiveFile, "regions.zip", Files.size(archiveFile), "Entity", 1L);
+
+                assertEquals(80, result.count());
+                assertEquals(4, mapper.headerSizes.size());
+                // Размер элемента берётся из центрального каталога, а не -1 как у ZipInputStream
+                assertTrue(mapper.headerSizes.stream().allMatch(size -> size > 0));
+            }
+        } finally {
+            Files.deleteIfExists(archiveFile);
+        }
+    }
+
+    private static String regionCsv(int entry, int rows) {
+        StringBuilder csv = new StringBuilder("ID;Region\n");
+        for (int row = 1; row <= rows; row++) csv.append(row).append(";R").append(entry).append('\n');
+        return csv.toString();
+    }
+
+    private static void writeTarEntry(ByteArrayOutputStream tar, String name, byte[] content, char type) {
+        byte[] header = new byte[512];
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        byte[] size = String.format("%011o", content.length).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(size, 0, header, 124, size.length);
+        header[156] = (byte) type;
+        System.arraycopy("ustar".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 5);
+        tar.writeBytes(header);
+        tar.writeBytes(content);
+        tar.writeBytes(new byte[(512 - content.length % 512) % 512]);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream)) {
+            gzipStream.write(data);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    @DisplayName("TAR.GZ: Потоковый импорт файлов tar-архива")
+    void testTarGzImport() throws IOException {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        writeTarEntry(tar, "regions/", new byte[0], '5');
+        writeTarEntry(tar, "regions/region1.csv", regionCsv(1, 700).getBytes(StandardCharsets.UTF_8), '0');
+        writeTarEntry(tar, "regions/readme.unknown", "skip me".getBytes(StandardCharsets.UTF_8), '0');
+        writeTarEntry(tar, "regions/region2.csv", regionCsv(2, 3).getBytes(StandardCharsets.UTF_8), '0');
+        tar.writeBytes(new byte[1024]);
+        byte[] archive = gzip(tar.toByteArray());
+
+        ConcurrentMapper mapper = new ConcurrentMapper();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("loaderRegistry", new LoaderRegistry());
+
+        ResultDTO result = new ZipFileLoader(RegionDTO.class, mapper, filters)
+                .importFile(new ByteArrayInputStream(archive), "regions.tar.gz", archive.length, "Entity", 1L);
+
+        assertEquals(703, result.count());
+        assertEquals(List.of((long) regionCsv(1, 700).length(), (long) regionCsv(2, 3).length()), mapper.headerSizes);
+    }
+
+    @Test
+    @DisplayName("GZ: Одиночный файл распаковывается на лету и импортируется по внутреннему расширению")
+    void testGzipImport() throws IOException {
+        byte[] archive = gzip(regionCsv(1, 25).getBytes(StandardCharsets.UTF_8));
+        ConcurrentMapper mapper = new ConcurrentMapper();
+        LoaderRegistry registry = new LoaderRegistry();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("loaderRegistry", registry);
+
+        assertEquals(ZipFileLoader.class, registry.getLoaderClass("gz"));
+        ResultDTO result = new ZipFileLoader(RegionDTO.class, mapper, filters)
+                .importFile(new ByteArrayInputStream(archive), "regions.csv.gz", archive.length, "Entity", 1L);
+
+        assertEquals(25, result.count());
+        assertEquals(1L, result.uploadId());
+    }
+
+    @Test
+    @DisplayName("ZIP: Наблюдатель получает сводку по каждому файлу и по архиву")
+    void testImportListener() throws IOException {
+        byte[] archive = createArchive(3, 10);
+        Map<String, ImportStats> completed = new LinkedHashMap<>();
+        List<String> progressFiles = new ArrayList<>();
+        ImportListener listener = new ImportListener() {
+            @Override
+            public void onProgress(String fileName, ImportStats progress) {
+                progressFiles.add(fileName);
+            }
+
+            @Override
+            public void onComplete(String fileName, ImportStats stats) {
+                completed.put(fileName, stats);
+            }
+        };
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("loaderRegistry", new LoaderRegistry());
+        filters.put(StandardParam.IMPORT_LISTENER.getKey(), listener);
+
+        ResultDTO result = new ZipFileLoader(RegionDTO.class, new ConcurrentMapper(), filters)
+                .importFile(new ByteArrayInputStream(archive), "regions.zip", archive.length, "Entity", 1L);
+
+        assertEquals(List.of("regions/region1.csv", "regions/region2.csv", "regions/region3.csv", "regions.zip"), List.copyOf(completed.keySet()));
+        // Первый пакет каждого файла отчитывается сразу
+        assertEquals(List.of("regions/region1.csv", "regions/region2.csv", "regions/region3.csv"), progressFiles);
+
+        ImportStats entryStats = completed.get("regions/region1.csv");
+        assertEquals(10, entryStats.rowsParsed());
+        assertEquals(10, entryStats.rowsInserted());
+        assertEquals("ID;Region\n".length() + 10 * "1;R1\n".length() + 1, entryStats.bytesRead());
+
+        ImportStats archiveStats = completed.get("regions.zip");
+        assertSame(result.stats(), archiveStats);
+        assertEquals(30, archiveStats.rowsInserted());
+        assertEquals(3, archiveStats.batches());
+        assertEquals(3 * entryStats.bytesRead(), archiveStats.bytesRead());
+    }
+}
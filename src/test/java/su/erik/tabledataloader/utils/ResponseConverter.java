@@ -21,12 +21,14 @@ public class ResponseConverter {
         if (resource.status().series() != LoaderHttpStatus.Series.SUCCESSFUL) {
             return ResponseEntity.status(mapStatus(resource.status())).build();
         }
-        return ResponseEntity
+        ResponseEntity.BodyBuilder builder = ResponseEntity
                 .status(mapStatus(resource.status()))
                 .header(Constant.CONTENT_DISPOSITION, String.format(Constant.ATTACHMENT_FILENAME, resource.fileName()))
-                .header(Constant.CONTENT_TYPE, resource.contentType())
-                .contentLength(resource.size())
-                .body(new InputStreamResource(resource.stream()));
+                .header(Constant.CONTENT_TYPE, resource.contentType());
+        if (resource.isSizeKnown()) {
+            builder.contentLength(resource.size());
+        }
+        return builder.body(new InputStreamResource(resource.stream()));
     }
 
     private static HttpStatus mapStatus(LoaderHttpStatus status) {
@@ -54,12 +54,15 @@ public class SpringResponseAdapter {
             return ResponseEntity.status(mapStatus(resource.status())).build();
         }
 
-        return ResponseEntity
+        ResponseEntity.BodyBuilder builder = ResponseEntity
                 .status(mapStatus(resource.status()))
                 .header(Constant.CONTENT_DISPOSITION, String.format("attachment; filename=\"%s\"", resource.fileName()))
-                .header(Constant.CONTENT_TYPE, resource.contentType())
-                .contentLength(resource.size())
-                .body(new InputStreamResource(resource.stream()));
+                .header(Constant.CONTENT_TYPE, resource.contentType());
+        // При потоковом экспорте размер неизвестен: Content-Length не выставляем
+        if (resource.isSizeKnown()) {
+            builder.contentLength(resource.size());
+        }
+        return builder.body(new InputStreamResource(resource.stream()));
     }
 
     // --- Вспомогательные методы ---